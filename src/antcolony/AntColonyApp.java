@@ -1,5 +1,6 @@
 package antcolony;
 
+import antcolony.data.AntColonyConfig;
 import processing.core.PApplet;
 import setup.IProcessingApp;
 
@@ -19,6 +20,44 @@ public class AntColonyApp implements IProcessingApp
      */
     private AntColonySimulation sim;
 
+    /**
+     * Seed of the run.
+     */
+    private final long seed;
+
+    /**
+     * Whether the physics run on a dedicated thread.
+     */
+    private final boolean simThread;
+
+    /**
+     * App Constructor (time-based seed).
+     */
+    public AntColonyApp()
+    {
+        this(System.nanoTime());
+    }
+
+    /**
+     * App Constructor.
+     * @param seed Seed of the run (same seed, same simulation).
+     */
+    public AntColonyApp(long seed)
+    {
+        this(seed, AntColonyConfig.SIMULATION_THREAD);
+    }
+
+    /**
+     * App Constructor.
+     * @param seed Seed of the run (same seed, same simulation).
+     * @param simThread Whether the physics run on a dedicated thread.
+     */
+    public AntColonyApp(long seed, boolean simThread)
+    {
+        this.seed = seed;
+        this.simThread = simThread;
+    }
+
     /**
      * Initial configuration.
      * Instantiates the simulation and calls its setup method.
@@ -28,6 +67,8 @@ public class AntColonyApp implements IProcessingApp
     public void setup(PApplet p)
     {
         sim = new AntColonySimulation();
+        sim.seed = seed;
+        sim.useSimulationThread = simThread;
         sim.setup(p);
     }
 
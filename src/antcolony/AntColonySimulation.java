@@ -2,21 +2,32 @@ package antcolony;
 
 import antcolony.data.AntColonyConfig;
 import antcolony.data.ColonyStats;
+import antcolony.data.SimRandom;
+import antcolony.data.SimulationParams;
 import antcolony.data.WorldTime;
 import antcolony.entities.Ant;
+import antcolony.entities.AntPool;
 import antcolony.entities.FallingLeaf;
+import antcolony.entities.LeafPool;
+import antcolony.entities.ParallelAntUpdater;
 import antcolony.entities.StaticTree;
 import antcolony.environment.ColorScheme;
 import antcolony.environment.EnvironmentRenderer;
+import antcolony.environment.LazyPheromoneField;
+import antcolony.environment.LeafGrid;
+import antcolony.environment.MappedPheromoneField;
 import antcolony.environment.PheromoneField;
+import antcolony.environment.QuantizedPheromoneField;
 import antcolony.environment.Stars;
 import antcolony.ui.SidebarLeft;
 import antcolony.ui.SidebarRight;
 import processing.core.PApplet;
 import processing.core.PVector;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Iterator;
 
 /**
  * Core of the "Ant Colony" simulation.
@@ -38,11 +49,53 @@ public class AntColonySimulation
 
     // --- Entity Lists ---
     
-    /** List of all living ants. */
-    public ArrayList<Ant> ants = new ArrayList<>();
+    /** All living ants (structure-of-arrays storage). */
+    public AntPool ants = new AntPool();
+
+    /** Reusable flyweight used to run the AI of each pooled ant. */
+    private final Ant antView = new Ant();
+
+    /** Reusable newborn, reinitialized by every birth and copied into the pool. */
+    private final Ant spawnView = new Ant();
+
+    /** Parallel ant update (null = serial update, see {@link #antThreads}). */
+    private ParallelAntUpdater antUpdater;
+
+    /**
+     * Threads of the ant update (1 = serial, see AntColonyConfig.ANT_UPDATE_THREADS).
+     * Must be set before setup.
+     */
+    public int antThreads = AntColonyConfig.ANT_UPDATE_THREADS;
+
+    /**
+     * Threads of the pheromone evaporation (1 = serial, see AntColonyConfig.EVAPORATION_THREADS).
+     * Must be set before setup.
+     */
+    public int evaporationThreads = AntColonyConfig.EVAPORATION_THREADS;
+
+    /**
+     * Runs the physics on a dedicated thread (see {@link SimulationThread}).
+     * Must be set before {@link #setup(PApplet)}.
+     */
+    public boolean useSimulationThread = AntColonyConfig.SIMULATION_THREAD;
+
+    /** Dedicated simulation thread (null = physics run on the animation thread). */
+    private SimulationThread simThread;
+
+    /** Snapshot drawn by the current frame (null without a simulation thread). */
+    public RenderSnapshot frame;
+
+    /** Slider values read at the start of every frame. */
+    private final SimulationParams sliderParams = new SimulationParams();
     
     /** List of leaves falling or on the ground (food). */
     public ArrayList<FallingLeaf> fallingLeaves = new ArrayList<>();
+
+    /** Recycled leaves (consumed leaves are released here and reused by spawns). */
+    public final LeafPool leafPool = new LeafPool(AntColonyConfig.LEAF_POOL_MAX);
+
+    /** Reusable leaf spawn position. */
+    private final PVector leafSpawn = new PVector();
     
     /** List of static trees (scenery). */
     public ArrayList<StaticTree> forest = new ArrayList<>();
@@ -53,6 +106,24 @@ public class AntColonySimulation
     // --- World State ---
     
     private int lastStarRegenSeason = -1;
+
+    /** Seed of the run (set before setup; two runs with the same seed are identical). */
+    public long seed = System.nanoTime();
+
+    /** Random stream of the world logic (ants, leaves, trees). */
+    public SimRandom random;
+
+    /**
+     * Random stream of purely visual elements (stars, soil texture).
+     * Kept apart so rendering never changes the outcome of the physics.
+     */
+    public SimRandom visualRandom;
+
+    /** World width in pixels (window width, or the headless world size). */
+    public int worldW;
+
+    /** World height in pixels. */
+    public int worldH;
     
     public int cols;
     public int rows;
@@ -61,6 +132,21 @@ public class AntColonySimulation
     /** Pheromone grid (4 channels). */
     public PheromoneField pheromones;
 
+    /**
+     * Backing file of a memory-mapped pheromone grid (null = grid on the Java heap).
+     * Must be set before setup.
+     */
+    public Path pheromoneFile;
+
+    /**
+     * Bits per stored pheromone value (32 = float, 16 or 8 = quantized).
+     * Must be set before setup.
+     */
+    public int pheromoneBits = AntColonyConfig.PHEROMONE_BITS;
+
+    /** Spatial index of the leaves resting on the ground (rebuilt every physics step). */
+    public LeafGrid leafGrid;
+
     /** Y position of the ground surface. */
     public float surfaceY;
     
@@ -98,6 +184,9 @@ public class AntColonySimulation
     public SidebarLeft sidebarLeft;
     public SidebarRight sidebarRight;
 
+    /** Fast-forward command (key T), created with the window. */
+    public TimeWarp timeWarp;
+
     // UI Dimensions
     public int leftSidebarW = AntColonyConfig.LEFT_SIDEBAR_W;
     public int rightSidebarW = AntColonyConfig.RIGHT_SIDEBAR_W;
@@ -112,19 +201,19 @@ public class AntColonySimulation
      * Generates stars in the sky.
      * Called at start and whenever the season changes (for variety).
      */
-    public void initStars(PApplet p)
+    public void initStars()
     {
         stars.clear();
         
         float xMin = leftSidebarW;
-        float xMax = p.width - rightSidebarW;
+        float xMax = worldW - rightSidebarW;
         float yMin = 10;
         float yMax = surfaceY - 40;
         int N = 140;
         
         for (int i = 0; i < N; i++)
         {
-            stars.add(new Stars(p, xMin, xMax, yMin, yMax));
+            stars.add(new Stars(visualRandom, xMin, xMax, yMin, yMax));
         }
         
         lastStarRegenSeason = time.curSeasonIdx;
@@ -133,12 +222,12 @@ public class AntColonySimulation
     /**
      * Generates the background forest with fixed positions.
      */
-    private void initForest(PApplet p)
+    private void initForest()
     {
         forest.clear();
         
         float playableStart = leftSidebarW;
-        float playableWidth = p.width - leftSidebarW - rightSidebarW;
+        float playableWidth = worldW - leftSidebarW - rightSidebarW;
         
         // Percentage positions to distribute trees aesthetically
         float[] treePosPerc = { 0.1f, 0.3f, 0.5f, 0.75f, 0.9f };
@@ -147,55 +236,182 @@ public class AntColonySimulation
         for (int i = 0; i < treePosPerc.length; i++)
         {
             float actualX = playableStart + (playableWidth * treePosPerc[i]);
-            forest.add(new StaticTree(p, actualX, surfaceY, treeSizes[i]));
+            forest.add(new StaticTree(random, actualX, surfaceY, treeSizes[i]));
         }
     }
 
+    /**
+     * Rebuilds the random streams and the forest of a run seed (snapshot restore).
+     * <p>
+     * The trees are the first thing drawn from the world stream in
+     * {@link #setupWorld(int, int)}, so replaying the derivation reproduces
+     * the layout of the saved run (and its leaf spawn points) whatever seed
+     * this world was built with. The caller then restores the saved stream
+     * states.
+     * </p>
+     * @param seed Seed of the saved run.
+     */
+    public void reseedWorld(long seed)
+    {
+        this.seed = seed;
+        random = new SimRandom(seed);
+        visualRandom = random.split();
+        initForest();
+    }
+
+    /**
+     * Creates the pheromone field implementation selected in {@link AntColonyConfig}
+     * (or a memory-mapped / quantized one, see {@link #pheromoneFile} and {@link #pheromoneBits}).
+     */
+    private PheromoneField createPheromoneField()
+    {
+        PheromoneField field;
+
+        if (pheromoneFile != null)
+        {
+            try
+            {
+                field = new MappedPheromoneField(pheromoneFile, cols, rows, resolution);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("Cannot map pheromone file " + pheromoneFile, e);
+            }
+            field.setParallelism(evaporationThreads);
+        }
+        else if (pheromoneBits < 32)
+        {
+            field = new QuantizedPheromoneField(cols, rows, resolution, pheromoneBits);
+            field.setParallelism(evaporationThreads);
+        }
+        else if (AntColonyConfig.LAZY_EVAPORATION)
+        {
+            field = new LazyPheromoneField(cols, rows, resolution);
+        }
+        else
+        {
+            field = new PheromoneField(cols, rows, resolution);
+            field.setParallelism(evaporationThreads);
+            field.setSparse(AntColonyConfig.SPARSE_EVAPORATION, AntColonyConfig.EVAPORATION_CUTOFF);
+        }
+
+        return field;
+    }
+
     /**
      * Initial simulation configuration.
      * Called only once at application startup.
      */
     public void setup(PApplet p)
     {
+        // 1. Physical World and Initial Population
+        setupWorld(p.width, p.height);
+        
+        // 2. UI Configuration
+        btnResetW = 220;
+        btnResetH = 30;
+        btnResetX = (leftSidebarW - btnResetW) / 2f;
+        btnResetY = p.height - 55;
+
+        sidebarLeft = new SidebarLeft(this);
+        sidebarRight = new SidebarRight(this);
+        timeWarp = new TimeWarp(this);
+
+        // 3. Auxiliary Systems Initialization
+        colors.updateSeasonalColors(p, this);
+        initStars();
+        renderer.resetTexture();
+
+        // 4. Physics Thread (optional)
+        if (useSimulationThread)
+        {
+            sidebarLeft.readParams(sliderParams);
+            applyParams(sliderParams);
+
+            simThread = new SimulationThread(this, sliderParams);
+            simThread.start();
+            frame = simThread.acquire();
+        }
+    }
+
+    /**
+     * Builds the physical world (grids, queens, forest and initial ants).
+     * <p>
+     * Nothing here draws or reads the window, so it is shared by the
+     * windowed application and the headless {@link SimulationEngine}.
+     * </p>
+     * @param w World width in pixels.
+     * @param h World height in pixels.
+     */
+    public void setupWorld(int w, int h)
+    {
+        // 0. Random streams derived from the run seed
+        random = new SimRandom(seed);
+        visualRandom = random.split();
+
         // 1. Physical World Definition
-        surfaceY = p.height * 0.35f;
-        cols = p.width / resolution;
-        rows = p.height / resolution;
+        worldW = w;
+        worldH = h;
+        surfaceY = h * 0.35f;
+        cols = w / resolution;
+        rows = h / resolution;
         
-        pheromones = new PheromoneField(cols, rows, resolution);
+        pheromones = createPheromoneField();
+        leafGrid = new LeafGrid(w, h, AntColonyConfig.LEAF_GRID_CELL);
+
+        if (antThreads > 1)
+        {
+            antUpdater = new ParallelAntUpdater(antThreads);
+        }
 
         float playableStart = leftSidebarW;
-        float playableWidth = p.width - leftSidebarW - rightSidebarW;
+        float playableWidth = w - leftSidebarW - rightSidebarW;
         
         // Position queens at 25% and 75% of the playable area
-        queenLocA = new PVector(playableStart + playableWidth * 0.25f, p.height - 30);
-        queenLocB = new PVector(playableStart + playableWidth * 0.75f, p.height - 30);
+        queenLocA = new PVector(playableStart + playableWidth * 0.25f, h - 30);
+        queenLocB = new PVector(playableStart + playableWidth * 0.75f, h - 30);
 
-        pheromones.reset(queenLocA, queenLocB);
-        initForest(p);
+        pheromones.configure(playableStart, w - rightSidebarW, surfaceY,
+                             queenLocA, queenLocB, AntColonyConfig.NEST_RADIUS);
+
+        // A reopened memory-mapped grid keeps the trails saved in its file:
+        // only the nest mask and loop bounds (configure above) are rebuilt
+        if (!(pheromones instanceof MappedPheromoneField)
+            || !((MappedPheromoneField) pheromones).isReopened())
+        {
+            pheromones.reset(queenLocA, queenLocB);
+        }
+        initForest();
 
         // 2. Initial Population Creation
         ants.clear();
         for (int i = 0; i < AntColonyConfig.INITIAL_ANTS / 2; i++)
         {
-            spawnAnt(p, 0); // Blue Colony
-            spawnAnt(p, 1); // Red Colony
+            spawnAnt(0); // Blue Colony
+            spawnAnt(1); // Red Colony
         }
-        
-        // 3. UI Configuration
-        btnResetW = 220;
-        btnResetH = 30;
-        btnResetX = (leftSidebarW - btnResetW) / 2f;
-        btnResetY = p.height - 55;
-
-        sidebarLeft = new SidebarLeft(this);
-        sidebarRight = new SidebarRight(this);
 
-        // 4. Auxiliary Systems Initialization
         time.recalc(statsA, statsB);
-        colors.updateSeasonalColors(p, this);
-        initStars(p);
-        renderer.resetTexture();
+    }
+
+    /**
+     * Copies a set of parameters into the simulation.
+     * <p>
+     * The windowed application reads them from the sliders at the start of
+     * every frame; headless runs and the simulation thread apply them
+     * before every tick.
+     * </p>
+     * @param params Parameters to apply.
+     */
+    public void applyParams(SimulationParams params)
+    {
+        metaA = params.metaA;
+        costA = params.costA;
+        evapRateA = params.evapRateA;
+
+        metaB = params.metaB;
+        costB = params.costB;
+        evapRateB = params.evapRateB;
     }
 
     /**
@@ -204,7 +420,9 @@ public class AntColonySimulation
     public void resetSimulation(PApplet p)
     {
         ants.clear();
+        leafPool.releaseAll(fallingLeaves);
         fallingLeaves.clear();
+        leafGrid.clear();
         
         foodStockA = 0;
         foodStockB = 0;
@@ -214,12 +432,12 @@ public class AntColonySimulation
         statsB.reset();
         
         pheromones.reset(queenLocA, queenLocB);
-        initForest(p);
+        initForest();
 
         for (int i = 0; i < AntColonyConfig.INITIAL_ANTS / 2; i++)
         {
-            spawnAnt(p, 0);
-            spawnAnt(p, 1);
+            spawnAnt(0);
+            spawnAnt(1);
         }
 
         // Ensure simulation is unpaused on reset
@@ -229,7 +447,7 @@ public class AntColonySimulation
     /**
      * Creates a new ant at the corresponding queen's position.
      */
-    public void spawnAnt(PApplet p, int colonyId)
+    public void spawnAnt(int colonyId)
     {
         PVector q;
         if (colonyId == 0)
@@ -241,7 +459,9 @@ public class AntColonySimulation
             q = queenLocB;
         }
         
-        ants.add(new Ant(p, this, q.x, q.y, colonyId));
+        // The newborn is copied into a recycled pool slot
+        spawnView.init(this, q.x, q.y, colonyId);
+        ants.add(spawnView);
         
         // Record birth statistics
         if (colonyId == 0)
@@ -254,25 +474,70 @@ public class AntColonySimulation
         }
     }
 
+    /**
+     * Restarts the simulation from the UI, between two ticks of the
+     * simulation thread when there is one.
+     */
+    private void requestReset(PApplet p)
+    {
+        if (simThread != null)
+        {
+            simThread.runExclusive(() -> resetSimulation(p));
+        }
+        else
+        {
+            resetSimulation(p);
+        }
+    }
+
+    /**
+     * Ant pool to display and count in the UI: the latest snapshot when the
+     * physics run on their own thread, the live pool otherwise.
+     * @return Ants shown by the current frame.
+     */
+    public AntPool displayedAnts()
+    {
+        if (frame != null)
+        {
+            return frame.ants;
+        }
+
+        return ants;
+    }
+
     /**
      * Input Management: Mouse.
      */
     public void mousePressed(PApplet p)
     {
+        // The world is being fast-forwarded: the controls are not drawn
+        if (timeWarp.isActive())
+        {
+            return;
+        }
+
         if (sidebarLeft.isResetHit(p.mouseX, p.mouseY))
         {
-            resetSimulation(p);
+            requestReset(p);
         }
     }
 
     /**
      * Input Management: Keyboard.
+     * <p>
+     * The time warp prompt (key T) and an active warp take every key first.
+     * </p>
      */
     public void keyPressed(PApplet p)
     {
+        if (timeWarp.keyPressed(p))
+        {
+            return;
+        }
+
         if (p.key == 'r' || p.key == 'R')
         {
-            resetSimulation(p);
+            requestReset(p);
         }
 
         // SPACEBAR to toggle pause
@@ -299,59 +564,126 @@ public class AntColonySimulation
         sidebarLeft.update(p.mouseX, p.mouseY, p.mousePressed);
 
         // 2. READ SLIDER VALUES (Real-time parameter updates)
-        metaA = sidebarLeft.metaASlider.value;
-        costA = (int) sidebarLeft.costASlider.value;
-        evapRateA = sidebarLeft.evapASlider.value;
-        
-        metaB = sidebarLeft.metaBSlider.value;
-        costB = (int) sidebarLeft.costBSlider.value;
-        evapRateB = sidebarLeft.evapBSlider.value;
+        sidebarLeft.readParams(sliderParams);
 
-        // 3. PHYSICS AND LOGIC (Sub-stepping)
-        // Only executed if the simulation is NOT paused
-        if (isPaused == false)
+        // 3. TIME WARP (Physics only, rendering suspended until the target is reached)
+        if (timeWarp.isActive())
         {
-            int simSpeed = (int) sidebarLeft.speedSlider.value;
-            
-            for (int k = 0; k < simSpeed; k++)
+            if (simThread != null)
+            {
+                // The thread waits while the warp runs in exclusive slices
+                simThread.setPaused(true);
+                simThread.runExclusive(() -> timeWarp.advance(sliderParams));
+            }
+            else
+            {
+                timeWarp.advance(sliderParams);
+            }
+
+            if (timeWarp.isActive())
             {
-                updatePhysics(p, sidebarLeft.leafSlider.value, dt);
+                timeWarp.drawProgress(p);
+                return;
             }
+
+            // Target reached: this frame is drawn normally
         }
 
-        // 4. ENVIRONMENTAL LOGIC
-        time.recalc(statsA, statsB);
+        // 4. PHYSICS AND LOGIC (Sub-stepping)
+        if (simThread != null)
+        {
+            // The physics run on their own thread: forward the controls
+            // and pick up the latest published state
+            simThread.setParams(sliderParams);
+            simThread.setPaused(isPaused);
+            simThread.setTargetTps(targetTicksPerSecond());
+            frame = simThread.acquire();
+        }
+        else
+        {
+            applyParams(sliderParams);
+
+            // Only executed if the simulation is NOT paused
+            if (isPaused == false)
+            {
+                for (int k = 0; k < sliderParams.speed; k++)
+                {
+                    updatePhysics(sliderParams.leafRate, dt);
+                }
+            }
+
+            // The simulation thread keeps the calendar itself
+            time.recalc(statsA, statsB);
+        }
+
+        // 5. ENVIRONMENTAL LOGIC
         colors.updateSeasonalColors(p, this);
+        updateSkyActors();
 
-        // 5. RENDERING (Always active to allow observation/analysis during pause)
+        // 6. RENDERING (Always active to allow observation/analysis during pause)
         renderer.drawSky(p, this);
         renderer.drawCelestialBodies(p, this);
         renderer.drawForestAndGround(p, this);
-        renderer.drawPheromones(p, this);
+
+        if (frame != null)
+        {
+            renderer.drawPheromones(p, frame);
+        }
+        else
+        {
+            renderer.drawPheromones(p, this);
+        }
         
         renderer.drawQueen(p, queenLocA, 0);
         renderer.drawQueen(p, queenLocB, 1);
         
-        renderer.drawFallingLeaves(p, this);
-        renderer.drawAnts(p, this);
+        if (frame != null)
+        {
+            renderer.drawFallingLeaves(p, frame);
+            renderer.drawAnts(p, frame.ants, colors);
+        }
+        else
+        {
+            renderer.drawFallingLeaves(p, this);
+            renderer.drawAnts(p, this);
+        }
 
-        // 6. UI OVERLAY (Drawn on top of everything)
+        // 7. UI OVERLAY (Drawn on top of everything)
         sidebarLeft.draw(p);
         sidebarRight.draw(p);
+        timeWarp.drawOverlay(p);
+    }
+
+    /**
+     * Pace of the simulation thread.
+     * @return Target ticks per second (0 or less = uncapped).
+     */
+    private float targetTicksPerSecond()
+    {
+        if (AntColonyConfig.SIMULATION_THREAD_TPS > 0)
+        {
+            return AntColonyConfig.SIMULATION_THREAD_TPS;
+        }
+        else if (AntColonyConfig.SIMULATION_THREAD_TPS < 0)
+        {
+            return 0;
+        }
+
+        // Same pace as the classic loop: "speed" ticks per frame at 60 FPS
+        return sliderParams.speed * 60f;
     }
 
     /**
      * Physics Step.
      * Contains all logic that should be accelerated by the speed slider.
      */
-    public void updatePhysics(PApplet p, float leafRate, float dt)
+    public void updatePhysics(float leafRate, float dt)
     {
         // Advance time
         time.tick(1.0f);
         
         // Process pheromones and environment
-        pheromones.evaporate(p, this);
-        updateSkyActors(p);
+        pheromones.evaporate(this);
 
         // Animate roots
         for (StaticTree t : forest)
@@ -375,103 +707,152 @@ public class AntColonySimulation
             seasonMod = 0.2f;  // Spring/Summer: Normal
         }
 
-        if (p.random(1) < leafRate * seasonMod)
+        if (random.nextFloat() < leafRate * seasonMod)
         {
-            PVector spawn = getLeafSpawnPoint(p);
-            fallingLeaves.add(new FallingLeaf(p, this, spawn));
+            getLeafSpawnPoint(leafSpawn);
+            fallingLeaves.add(leafPool.obtain(this, leafSpawn));
         }
 
-        // --- Leaf Update (Safe iteration with removal) ---
-        Iterator<FallingLeaf> lit = fallingLeaves.iterator();
-        while (lit.hasNext())
+        // --- Leaf Update (Consumed leaves compacted in one pass) ---
+        // Survivors slide down in order; the tail is cut once at the end,
+        // instead of shifting the list on every removal. Consumed leaves
+        // go back to the pool.
+        int leafCount = fallingLeaves.size();
+        int kept = 0;
+        for (int k = 0; k < leafCount; k++)
         {
-            FallingLeaf l = lit.next();
-            l.update(p, this, dt);
+            FallingLeaf l = fallingLeaves.get(k);
+            l.update(this, dt);
             
-            // Remove if the leaf has been fully consumed
-            if (l.amount <= 0)
+            // Keep only the leaves that still hold food
+            if (l.amount > 0)
             {
-                lit.remove();
+                fallingLeaves.set(kept++, l);
+            }
+            else
+            {
+                leafPool.release(l);
             }
         }
 
+        if (kept < leafCount)
+        {
+            fallingLeaves.subList(kept, leafCount).clear();
+        }
+
+        // Index ground leaves so ants only scan nearby buckets
+        leafGrid.rebuild(fallingLeaves, surfaceY);
+
         // --- Ant Update ---
-        Iterator<Ant> ait = ants.iterator();
-        while (ait.hasNext())
+        if (antUpdater != null)
         {
-            Ant a = ait.next();
-            a.run(p, this);
-            
-            if (a.isDead())
-            {
-                ait.remove();
-                
-                // Record death in statistics
-                if (a.colonyId == 0)
-                {
-                    statsA.registerDeath();
-                }
-                else
-                {
-                    statsB.registerDeath();
-                }
-            }
+            antUpdater.update(this);
+        }
+        else
+        {
+            updateAntsSerial();
         }
 
         // --- Colony Reproduction ---
         int MAX_PER_COLONY = 1000; // Performance safety limit
         
-        long countA = ants.stream().filter(a -> a.colonyId == 0).count();
-        long countB = ants.stream().filter(a -> a.colonyId == 1).count();
+        int countA = ants.population.getLive(0);
+        int countB = ants.population.getLive(1);
 
         // Colony A attempts to create a new ant
         if (countA < MAX_PER_COLONY && foodStockA >= costA)
         {
             foodStockA -= costA;
-            spawnAnt(p, 0);
+            spawnAnt(0);
         }
         
         // Colony B attempts to create a new ant
         if (countB < MAX_PER_COLONY && foodStockB >= costB)
         {
             foodStockB -= costB;
-            spawnAnt(p, 1);
+            spawnAnt(1);
+        }
+    }
+
+    /**
+     * Serial ant update (AI, physics, deaths) on the calling thread.
+     */
+    private void updateAntsSerial()
+    {
+        // Each ant is loaded into the flyweight, updated and stored back.
+        // Dead ants are swap-removed (one entry copy, no shifting), so index
+        // i is visited again in that case; deaths are recorded in bulk.
+        Ant a = antView;
+        int deathsA = 0;
+        int deathsB = 0;
+        int i = 0;
+        while (i < ants.size())
+        {
+            a.load(ants, i);
+            a.run(this);
+            
+            if (a.isDead())
+            {
+                ants.removeAt(i);
+                
+                if (a.colonyId == 0)
+                {
+                    deathsA++;
+                }
+                else
+                {
+                    deathsB++;
+                }
+            }
+            else
+            {
+                ants.update(a, i, ants.population);
+                i++;
+            }
         }
+
+        // Record deaths in statistics
+        statsA.registerDeaths(deathsA);
+        statsB.registerDeaths(deathsB);
     }
 
     /**
      * Checks if starry sky regeneration is required (seasonal change).
      */
-    public void updateSkyActors(PApplet p)
+    public void updateSkyActors()
     {
         if (time.curSeasonIdx != lastStarRegenSeason)
         {
-            initStars(p);
+            initStars();
         }
     }
 
     /**
      * Finds a valid position on a tree to spawn a falling leaf.
+     * @param out Vector receiving the position.
+     * @return {@code out}.
      */
-    public PVector getLeafSpawnPoint(PApplet p)
+    public PVector getLeafSpawnPoint(PVector out)
     {
         if (forest.isEmpty())
         {
-            return new PVector(p.width / 2, 50);
+            return out.set(worldW / 2, 50);
         }
         
         // Select a random tree
-        StaticTree t = forest.get((int) p.random(forest.size()));
+        StaticTree t = forest.get((int) random.random(forest.size()));
         
         if (t.leafPositions == null || t.leafPositions.isEmpty())
         {
-            return new PVector(p.width / 2, 50);
+            return out.set(worldW / 2, 50);
         }
         
         // Select a leaf from that tree as the origin point
-        PVector lp = t.leafPositions.get((int) p.random(t.leafPositions.size()));
+        PVector lp = t.leafPositions.get((int) random.random(t.leafPositions.size()));
         
         // Add minor variation so they don't all originate from the exact same pixel
-        return new PVector(lp.x + p.random(-2, 2), lp.y + p.random(-2, 2));
+        float dx = random.random(-2, 2);
+        float dy = random.random(-2, 2);
+        return out.set(lp.x + dx, lp.y + dy);
     }
 }
\ No newline at end of file
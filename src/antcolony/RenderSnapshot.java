@@ -0,0 +1,100 @@
+package antcolony;
+
+import antcolony.entities.AntPool;
+import antcolony.entities.FallingLeaf;
+import antcolony.environment.PheromoneOverlay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Copy of everything the renderer needs from the moving parts of the world.
+ * <p>
+ * When the simulation runs on its own thread (see {@link SimulationThread}),
+ * the render thread never reads the live ant pool, leaf list or pheromone
+ * grid. It draws from a snapshot instead, captured by the simulation thread
+ * between two ticks. Snapshots are recycled (the arrays are reused), so
+ * publishing one allocates nothing once the buffers have grown.
+ * </p>
+ * <p>
+ * Scalar state (clock, statistics, food stocks) is still read directly from
+ * the simulation: those are single primitive fields, read for display only.
+ * </p>
+ */
+public class RenderSnapshot
+{
+    /**
+     * Physics tick at which the snapshot was captured.
+     */
+    public long tick;
+
+    /**
+     * Copy of the ant pool.
+     */
+    public final AntPool ants = new AntPool();
+
+    // --- Leaves ---
+
+    /** Number of valid leaf entries. */
+    public int leafCount;
+
+    /** Leaf position X (pixels). */
+    public float[] leafX = new float[64];
+
+    /** Leaf position Y (pixels). */
+    public float[] leafY = new float[64];
+
+    /** Remaining food of each leaf. */
+    public float[] leafAmount = new float[64];
+
+    /** Colour of each leaf. */
+    public int[] leafColor = new int[64];
+
+    /**
+     * Frozen copy of the pheromone layer.
+     */
+    public final PheromoneOverlay pheromones = new PheromoneOverlay();
+
+    /**
+     * Captures the current state of the world.
+     * <p>
+     * Must be called on the simulation thread, between two ticks.
+     * </p>
+     * @param sim Simulation to copy.
+     * @param overlay Pheromone layer kept up to date by the simulation thread.
+     * @param tick Current physics tick.
+     */
+    public void capture(AntColonySimulation sim, PheromoneOverlay overlay, long tick)
+    {
+        this.tick = tick;
+
+        ants.copyFrom(sim.ants);
+
+        ArrayList<FallingLeaf> leaves = sim.fallingLeaves;
+        int n = leaves.size();
+
+        if (n > leafX.length)
+        {
+            int capacity = Math.max(n, leafX.length * 2);
+
+            leafX = Arrays.copyOf(leafX, capacity);
+            leafY = Arrays.copyOf(leafY, capacity);
+            leafAmount = Arrays.copyOf(leafAmount, capacity);
+            leafColor = Arrays.copyOf(leafColor, capacity);
+        }
+
+        for (int i = 0; i < n; i++)
+        {
+            FallingLeaf l = leaves.get(i);
+
+            leafX[i] = l.phys.posPx.x;
+            leafY[i] = l.phys.posPx.y;
+            leafAmount[i] = l.amount;
+            leafColor[i] = l.col;
+        }
+        leafCount = n;
+
+        overlay.update(sim.pheromones);
+        overlay.copyTo(pheromones);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,267 @@
+package antcolony;
+
+import antcolony.data.ColonyStats;
+import antcolony.data.SimulationParams;
+import antcolony.entities.AntPool;
+import antcolony.entities.FallingLeaf;
+import antcolony.entities.LeafPool;
+import antcolony.entities.PopulationRegistry;
+import antcolony.environment.PheromoneField;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Headless driver of the simulation (no window, no rendering, no UI).
+ * <p>
+ * The world size and the parameters are given explicitly instead of being
+ * read from the window and the sliders, and every call to {@link #step()}
+ * advances exactly one physics tick with a fixed time step. This allows
+ * batch experiments on machines without a display, at the speed of the
+ * physics alone.
+ * </p>
+ * <p>
+ * All randomness comes from streams derived from the seed, so two engines
+ * built with the same seed, size and parameters stay bit-identical; this
+ * can be checked by comparing {@link #stateHash()} after the same number
+ * of ticks.
+ * </p>
+ */
+public class SimulationEngine
+{
+    /**
+     * Fixed time step of a headless tick (one frame at 60 FPS), in seconds.
+     */
+    public static final float TICK_DT = 1f / 60f;
+
+    /**
+     * The simulated world.
+     */
+    public final AntColonySimulation sim;
+
+    /**
+     * Parameters applied on every tick (may be changed between ticks).
+     */
+    public final SimulationParams params;
+
+    /**
+     * Number of ticks executed since construction.
+     */
+    private long ticks = 0;
+
+    /**
+     * Simulation Engine Constructor.
+     * @param width World width in pixels.
+     * @param height World height in pixels.
+     * @param params Simulation parameters.
+     * @param seed Seed of the run.
+     */
+    public SimulationEngine(int width, int height, SimulationParams params, long seed)
+    {
+        this(seeded(seed), width, height, params);
+    }
+
+    /**
+     * Simulation Engine Constructor for a pre-configured simulation.
+     * <p>
+     * Options read during setup (seed, pheromone storage) must already be
+     * set on {@code sim}; the world is built here.
+     * </p>
+     * @param sim Simulation that has not been set up yet.
+     * @param width World width in pixels.
+     * @param height World height in pixels.
+     * @param params Simulation parameters.
+     */
+    public SimulationEngine(AntColonySimulation sim, int width, int height, SimulationParams params)
+    {
+        this.sim = sim;
+        this.params = params;
+
+        sim.applyParams(params);
+        sim.setupWorld(width, height);
+    }
+
+    /**
+     * Simulation Engine Constructor for a world that is already set up
+     * (e.g. the windowed application, see {@link SimulationThread}).
+     * @param sim Simulation that has been set up.
+     * @param params Simulation parameters.
+     */
+    public SimulationEngine(AntColonySimulation sim, SimulationParams params)
+    {
+        this.sim = sim;
+        this.params = params;
+    }
+
+    /**
+     * Creates a simulation (not yet set up) with the given seed.
+     */
+    private static AntColonySimulation seeded(long seed)
+    {
+        AntColonySimulation sim = new AntColonySimulation();
+        sim.seed = seed;
+        return sim;
+    }
+
+    /**
+     * Advances the simulation by one tick.
+     */
+    public void step()
+    {
+        sim.applyParams(params);
+        sim.updatePhysics(params.leafRate, TICK_DT);
+
+        // Keeps the calendar (seasons, end-of-day statistics) in sync
+        sim.time.recalc(sim.statsA, sim.statsB);
+
+        ticks++;
+    }
+
+    /**
+     * Advances the simulation by several ticks.
+     * @param n Number of ticks to run.
+     */
+    public void run(long n)
+    {
+        for (long i = 0; i < n; i++)
+        {
+            step();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the world and of the parameters.
+     * @param file Destination file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void save(Path file) throws IOException
+    {
+        SimulationSnapshot.save(sim, params, file);
+    }
+
+    /**
+     * Restores the world and the parameters from a snapshot.
+     * @param file Snapshot taken from a world of the same size.
+     * @throws IOException If the file cannot be read or does not match.
+     */
+    public void load(Path file) throws IOException
+    {
+        SimulationSnapshot.load(sim, params, file);
+    }
+
+    /**
+     * Number of ticks executed since construction.
+     * @return Tick count.
+     */
+    public long getTicks()
+    {
+        return ticks;
+    }
+
+    /**
+     * Computes a hash of the complete world state.
+     * <p>
+     * Covers every ant (including its random stream), every leaf, the
+     * pheromone grid, the food stocks, the clock and the master random
+     * stream. Two runs are identical if their hashes match.
+     * </p>
+     * @return 64-bit state hash.
+     */
+    public long stateHash()
+    {
+        long h = 1125899906842597L;
+
+        // 1. Ants
+        AntPool ants = sim.ants;
+        for (int i = 0; i < ants.size(); i++)
+        {
+            h = mix(h, Float.floatToIntBits(ants.posX[i]));
+            h = mix(h, Float.floatToIntBits(ants.posY[i]));
+            h = mix(h, Float.floatToIntBits(ants.velX[i]));
+            h = mix(h, Float.floatToIntBits(ants.velY[i]));
+            h = mix(h, Float.floatToIntBits(ants.nrg[i]));
+            h = mix(h, Float.floatToIntBits(ants.age[i]));
+            h = mix(h, Float.floatToIntBits(ants.maxAge[i]));
+            h = mix(h, Float.floatToIntBits(ants.pherStr[i]));
+            h = mix(h, ants.colonyId[i]);
+            h = mix(h, ants.hasFood[i] ? 1 : 0);
+            h = mix(h, ants.state[i]);
+            h = mix(h, ants.rngState[i]);
+        }
+
+        // 2. Leaves
+        for (FallingLeaf l : sim.fallingLeaves)
+        {
+            h = mix(h, Float.floatToIntBits(l.phys.posPx.x));
+            h = mix(h, Float.floatToIntBits(l.phys.posPx.y));
+            h = mix(h, Float.floatToIntBits(l.amount));
+        }
+
+        // 3. Pheromones
+        PheromoneField field = sim.pheromones;
+        int cells = field.cols * field.rows;
+        for (int c = 0; c < PheromoneField.CHANNELS; c++)
+        {
+            for (int i = 0; i < cells; i++)
+            {
+                h = mix(h, Float.floatToIntBits(field.getAt(i, c)));
+            }
+        }
+
+        // 4. Scalars
+        h = mix(h, sim.foodStockA);
+        h = mix(h, sim.foodStockB);
+        h = mix(h, Float.floatToIntBits(sim.time.worldTime));
+        h = mix(h, sim.random.getState());
+
+        return h;
+    }
+
+    /**
+     * Folds one value into a running hash.
+     */
+    private static long mix(long h, long v)
+    {
+        return (h ^ v) * 0x100000001B3L + (h >>> 29);
+    }
+
+    /**
+     * Builds a plain-text summary of the world and of both colonies.
+     * @return Multi-line report.
+     */
+    public String report()
+    {
+        StringBuilder sb = new StringBuilder();
+
+        sb.append(String.format("Ticks: %d | Day %d, %02d:%02d (%s)%n",
+                ticks, sim.time.curDay, sim.time.curHour, sim.time.curMin,
+                sim.time.seasonNames[sim.time.curSeasonIdx]));
+        sb.append(String.format("Leaves: %d (%d on the ground)%n",
+                sim.fallingLeaves.size(), sim.leafGrid.size()));
+
+        appendColony(sb, "BLUE", 0, sim.foodStockA, sim.statsA);
+        appendColony(sb, "RED ", 1, sim.foodStockB, sim.statsB);
+
+        AntPool ants = sim.ants;
+        LeafPool leaves = sim.leafPool;
+        sb.append(String.format("Pools | Ant slots: %d/%d (hit %.1f%%, %d fresh, %d grows) | Leaves: %d free (hit %.1f%%, %d allocated)%n",
+                ants.size(), ants.capacity(), ants.getSlotHitRate() * 100, ants.slotFresh, ants.slotGrowths,
+                leaves.getFreeCount(), leaves.getHitRate() * 100, leaves.misses));
+
+        return sb.toString();
+    }
+
+    /**
+     * Appends the report line of one colony.
+     */
+    private void appendColony(StringBuilder sb, String name, int colony, int stock, ColonyStats stats)
+    {
+        PopulationRegistry population = sim.ants.population;
+
+        sb.append(String.format("%s | Ants: %d (%d carrying) | Stock: %d | Yesterday: food %d, births %d, deaths %d"
+                + " | Today: food %d, births %d, deaths %d%n",
+                name, population.getLive(colony), population.getCarrying(colony), stock,
+                stats.dailyFood, stats.dailyBirths, stats.dailyDeaths,
+                stats.tempFood, stats.tempBirths, stats.tempDeaths));
+    }
+}
\ No newline at end of file
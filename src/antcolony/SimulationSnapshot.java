@@ -0,0 +1,745 @@
+package antcolony;
+
+import antcolony.data.ColonyStats;
+import antcolony.data.SimulationParams;
+import antcolony.entities.AntPool;
+import antcolony.entities.FallingLeaf;
+import antcolony.environment.LazyPheromoneField;
+import antcolony.environment.PheromoneField;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary checkpoint of a running simulation (save and restore).
+ * <p>
+ * File layout (little-endian):
+ * </p>
+ * <pre>
+ *     header:   magic "ANTS" | version | section count
+ *     section:  id | payload length in bytes (long) | payload
+ * </pre>
+ * <p>
+ * The small sections are each built in their own buffer and written with a
+ * single gathering write on a {@link FileChannel}. The pheromone channels,
+ * which may be larger than any buffer (a memory-mapped grid can hold
+ * hundreds of millions of cells), are streamed through a fixed
+ * {@value #CHUNK_BYTES}-byte buffer in both directions. Arrays (the pooled
+ * ant columns and the channel chunks) are copied in bulk through typed
+ * buffer views. Reading skips unknown sections, so newer files with extra
+ * sections can still be read by this version; version 1 files (int section
+ * lengths) are still accepted.
+ * </p>
+ * <p>
+ * The pheromone section holds the current values, readable by every field
+ * implementation. A lazy field also writes its raw decay state (stored
+ * values, stamps and clocks), so that restoring into a lazy field resumes
+ * bit-identically.
+ * </p>
+ * <p>
+ * The static scenery is not stored: the forest (and with it the leaf spawn
+ * points) is regenerated from the saved seed, whatever seed the restored
+ * world was built with.
+ * </p>
+ */
+public class SimulationSnapshot
+{
+    /** File signature ("ANTS"). */
+    private static final int MAGIC = 0x414E5453;
+
+    /** Current format version. */
+    public static final int VERSION = 2;
+
+    // --- Section IDs ---
+
+    private static final int SEC_WORLD = 1;
+    private static final int SEC_PARAMS = 2;
+    private static final int SEC_TIME = 3;
+    private static final int SEC_STATS = 4;
+    private static final int SEC_FOOD = 5;
+    private static final int SEC_RANDOM = 6;
+    private static final int SEC_ANTS = 7;
+    private static final int SEC_LEAVES = 8;
+    private static final int SEC_PHEROMONES = 9;
+    private static final int SEC_LAZY_DECAY = 10;
+
+    /** Bytes stored per ant (10 floats, 1 int, 2 bytes, 1 long). */
+    private static final int ANT_BYTES = 10 * 4 + 4 + 2 + 8;
+
+    /** Bytes stored per leaf (5 floats, 1 int). */
+    private static final int LEAF_BYTES = 5 * 4 + 4;
+
+    /** Size of a section header (id and long length). */
+    private static final int SECTION_HEADER = 12;
+
+    /** Size of a version 1 section header (id and int length). */
+    private static final int SECTION_HEADER_V1 = 8;
+
+    /** Size of the buffer streaming the pheromone channels. */
+    private static final int CHUNK_BYTES = 8 << 20;
+
+    /**
+     * Range of a float array streamed in chunks (exported from or imported into a field).
+     */
+    private interface FloatRange
+    {
+        void copy(int from, FloatBuffer buffer);
+    }
+
+    /**
+     * Range of a double array streamed in chunks.
+     */
+    private interface DoubleRange
+    {
+        void copy(int from, DoubleBuffer buffer);
+    }
+
+    /**
+     * Private constructor to prevent instantiation of this utility class.
+     */
+    private SimulationSnapshot()
+    {
+        // Intentionally empty
+    }
+
+    /**
+     * Writes the complete state of a simulation to a file.
+     * @param sim Simulation to save.
+     * @param params Parameters of the run (slider values).
+     * @param file Destination (created or overwritten).
+     * @throws IOException If the file cannot be written.
+     */
+    public static void save(AntColonySimulation sim, SimulationParams params, Path file) throws IOException
+    {
+        boolean lazy = sim.pheromones instanceof LazyPheromoneField;
+
+        ByteBuffer[] buffers = {
+            header(lazy ? 10 : 9),
+            world(sim),
+            params(params),
+            time(sim),
+            stats(sim),
+            food(sim),
+            random(sim),
+            ants(sim),
+            leaves(sim)
+        };
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            long total = 0;
+            for (ByteBuffer b : buffers)
+            {
+                total += b.remaining();
+            }
+
+            // A gathering write may be partial; loop until everything is out
+            long written = 0;
+            while (written < total)
+            {
+                written += ch.write(buffers);
+            }
+
+            // Grid sections, streamed
+            ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            writePheromones(ch, chunk, sim.pheromones);
+
+            if (lazy)
+            {
+                writeLazyDecay(ch, chunk, (LazyPheromoneField) sim.pheromones);
+            }
+        }
+    }
+
+    /**
+     * Restores the state of a simulation from a file.
+     * <p>
+     * The simulation must already be set up with the same world size and
+     * resolution as the saved one (checked before anything is modified).
+     * </p>
+     * @param sim Simulation to overwrite.
+     * @param params Receives the saved parameters (slider values).
+     * @param file Snapshot to read.
+     * @throws IOException If the file cannot be read or does not match the world.
+     */
+    public static void load(AntColonySimulation sim, SimulationParams params, Path file) throws IOException
+    {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            // 1. Header
+            if (ch.size() < 12)
+            {
+                throw new IOException("Not a simulation snapshot: " + file);
+            }
+
+            ByteBuffer h = read(ch, 0, 12);
+            if (h.getInt() != MAGIC)
+            {
+                throw new IOException("Not a simulation snapshot: " + file);
+            }
+
+            int version = h.getInt();
+            if (version > VERSION)
+            {
+                throw new IOException("Unsupported snapshot version " + version + " (max " + VERSION + ")");
+            }
+
+            int sections = h.getInt();
+            int sectionHeader = version >= 2 ? SECTION_HEADER : SECTION_HEADER_V1;
+            ByteBuffer chunk = null;
+
+            // 2. Sections (the world section comes first, so a mismatch aborts before any change)
+            long pos = 12;
+            for (int s = 0; s < sections; s++)
+            {
+                ByteBuffer sh = read(ch, pos, sectionHeader);
+                int id = sh.getInt();
+                long length = version >= 2 ? sh.getLong() : sh.getInt();
+                pos += sectionHeader;
+
+                if (id == SEC_PHEROMONES || id == SEC_LAZY_DECAY)
+                {
+                    if (chunk == null)
+                    {
+                        chunk = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                    }
+
+                    if (id == SEC_PHEROMONES)
+                    {
+                        readPheromones(sim, ch, pos, chunk);
+                    }
+                    else if (sim.pheromones instanceof LazyPheromoneField)
+                    {
+                        readLazyDecay((LazyPheromoneField) sim.pheromones, ch, pos, chunk);
+                    }
+                }
+                else if (id >= SEC_WORLD && id <= SEC_LEAVES)
+                {
+                    if (length > Integer.MAX_VALUE)
+                    {
+                        throw new IOException("Snapshot section " + id + " is too large (" + length + " bytes)");
+                    }
+
+                    readSection(sim, params, id, read(ch, pos, (int) length));
+                }
+                // Unknown section (newer format): skipped
+
+                pos += length;
+            }
+        }
+
+        // 3. Derived state
+        sim.applyParams(params);
+        sim.leafGrid.rebuild(sim.fallingLeaves, sim.surfaceY);
+    }
+
+    /**
+     * Restores one of the small (fully buffered) sections.
+     */
+    private static void readSection(AntColonySimulation sim, SimulationParams params, int id, ByteBuffer b)
+        throws IOException
+    {
+        switch (id)
+        {
+            case SEC_WORLD:
+                readWorld(sim, b);
+                break;
+            case SEC_PARAMS:
+                readParams(params, b);
+                break;
+            case SEC_TIME:
+                sim.time.restore(b.getFloat());
+                break;
+            case SEC_STATS:
+                readStats(sim.statsA, b);
+                readStats(sim.statsB, b);
+                break;
+            case SEC_FOOD:
+                sim.foodStockA = b.getInt();
+                sim.foodStockB = b.getInt();
+                break;
+            case SEC_RANDOM:
+                sim.reseedWorld(b.getLong());
+                sim.random.setState(b.getLong());
+                sim.visualRandom.setState(b.getLong());
+                break;
+            case SEC_ANTS:
+                readAnts(sim, b);
+                break;
+            case SEC_LEAVES:
+                readLeaves(sim, b);
+                break;
+            default:
+                break;
+        }
+    }
+
+    // --- Writers (one buffer per small section, streamed grids) ---
+
+    private static ByteBuffer header(int sections)
+    {
+        ByteBuffer b = allocate(12);
+        b.putInt(MAGIC).putInt(VERSION).putInt(sections);
+        return b.flip();
+    }
+
+    private static ByteBuffer world(AntColonySimulation sim)
+    {
+        ByteBuffer b = section(SEC_WORLD, 5 * 4);
+        b.putInt(sim.worldW).putInt(sim.worldH).putInt(sim.resolution).putInt(sim.cols).putInt(sim.rows);
+        return b.flip();
+    }
+
+    private static ByteBuffer params(SimulationParams params)
+    {
+        ByteBuffer b = section(SEC_PARAMS, 8 * 4);
+        b.putInt(params.speed).putFloat(params.leafRate);
+        b.putFloat(params.metaA).putInt(params.costA).putFloat(params.evapRateA);
+        b.putFloat(params.metaB).putInt(params.costB).putFloat(params.evapRateB);
+        return b.flip();
+    }
+
+    private static ByteBuffer time(AntColonySimulation sim)
+    {
+        ByteBuffer b = section(SEC_TIME, 4);
+        b.putFloat(sim.time.worldTime);
+        return b.flip();
+    }
+
+    private static ByteBuffer stats(AntColonySimulation sim)
+    {
+        ByteBuffer b = section(SEC_STATS, 12 * 4);
+        writeStats(sim.statsA, b);
+        writeStats(sim.statsB, b);
+        return b.flip();
+    }
+
+    private static ByteBuffer food(AntColonySimulation sim)
+    {
+        ByteBuffer b = section(SEC_FOOD, 2 * 4);
+        b.putInt(sim.foodStockA).putInt(sim.foodStockB);
+        return b.flip();
+    }
+
+    private static ByteBuffer random(AntColonySimulation sim)
+    {
+        ByteBuffer b = section(SEC_RANDOM, 3 * 8);
+        b.putLong(sim.seed).putLong(sim.random.getState()).putLong(sim.visualRandom.getState());
+        return b.flip();
+    }
+
+    private static ByteBuffer ants(AntColonySimulation sim)
+    {
+        AntPool ants = sim.ants;
+        int n = ants.size();
+
+        ByteBuffer b = section(SEC_ANTS, 4 + n * ANT_BYTES);
+        b.putInt(n);
+
+        // Column by column (each array is one bulk copy)
+        putFloats(b, ants.posX, n);
+        putFloats(b, ants.posY, n);
+        putFloats(b, ants.velX, n);
+        putFloats(b, ants.velY, n);
+        putFloats(b, ants.accX, n);
+        putFloats(b, ants.accY, n);
+        putFloats(b, ants.nrg, n);
+        putFloats(b, ants.age, n);
+        putFloats(b, ants.maxAge, n);
+        putFloats(b, ants.pherStr, n);
+
+        b.asIntBuffer().put(ants.colonyId, 0, n);
+        b.position(b.position() + n * 4);
+
+        for (int i = 0; i < n; i++)
+        {
+            b.put((byte) (ants.hasFood[i] ? 1 : 0));
+        }
+        b.put(ants.state, 0, n);
+
+        b.asLongBuffer().put(ants.rngState, 0, n);
+        b.position(b.position() + n * 8);
+
+        return b.flip();
+    }
+
+    private static ByteBuffer leaves(AntColonySimulation sim)
+    {
+        int n = sim.fallingLeaves.size();
+
+        ByteBuffer b = section(SEC_LEAVES, 4 + n * LEAF_BYTES);
+        b.putInt(n);
+
+        for (FallingLeaf l : sim.fallingLeaves)
+        {
+            b.putFloat(l.phys.posPx.x).putFloat(l.phys.posPx.y);
+            b.putFloat(l.phys.velPx.x).putFloat(l.phys.velPx.y);
+            b.putFloat(l.amount).putInt(l.col);
+        }
+
+        return b.flip();
+    }
+
+    private static void writePheromones(FileChannel ch, ByteBuffer chunk, PheromoneField field) throws IOException
+    {
+        int cells = field.cols * field.rows;
+
+        ByteBuffer b = section(SEC_PHEROMONES, 2 * 4 + (long) PheromoneField.CHANNELS * cells * 4, 2 * 4);
+        b.putInt(PheromoneField.CHANNELS).putInt(cells);
+        writeFully(ch, b.flip());
+
+        for (int c = 0; c < PheromoneField.CHANNELS; c++)
+        {
+            int channel = c;
+            writeFloats(ch, chunk, cells, (from, buf) -> field.exportChannel(channel, from, buf));
+        }
+    }
+
+    /**
+     * Layout: channel count, cell count, the four clocks, then per channel
+     * the stored values followed by the stamps.
+     */
+    private static void writeLazyDecay(FileChannel ch, ByteBuffer chunk, LazyPheromoneField field) throws IOException
+    {
+        int cells = field.cols * field.rows;
+
+        int fixed = 2 * 4 + PheromoneField.CHANNELS * 8;
+
+        ByteBuffer b = section(SEC_LAZY_DECAY, fixed + (long) PheromoneField.CHANNELS * cells * (4 + 8), fixed);
+        b.putInt(PheromoneField.CHANNELS).putInt(cells);
+        for (int c = 0; c < PheromoneField.CHANNELS; c++)
+        {
+            b.putDouble(field.getClock(c));
+        }
+        writeFully(ch, b.flip());
+
+        for (int c = 0; c < PheromoneField.CHANNELS; c++)
+        {
+            int channel = c;
+            writeFloats(ch, chunk, cells, (from, buf) -> field.exportStored(channel, from, buf));
+            writeDoubles(ch, chunk, cells, (from, buf) -> field.exportStamps(channel, from, buf));
+        }
+    }
+
+    // --- Readers ---
+
+    private static void readWorld(AntColonySimulation sim, ByteBuffer b) throws IOException
+    {
+        int w = b.getInt();
+        int h = b.getInt();
+        int res = b.getInt();
+        int cols = b.getInt();
+        int rows = b.getInt();
+
+        if (w != sim.worldW || h != sim.worldH || res != sim.resolution
+            || cols != sim.cols || rows != sim.rows)
+        {
+            throw new IOException("Snapshot world " + w + "x" + h + " @ " + res + " px does not match "
+                                  + sim.worldW + "x" + sim.worldH + " @ " + sim.resolution + " px");
+        }
+    }
+
+    private static void readParams(SimulationParams params, ByteBuffer b)
+    {
+        params.speed = b.getInt();
+        params.leafRate = b.getFloat();
+
+        params.metaA = b.getFloat();
+        params.costA = b.getInt();
+        params.evapRateA = b.getFloat();
+
+        params.metaB = b.getFloat();
+        params.costB = b.getInt();
+        params.evapRateB = b.getFloat();
+    }
+
+    private static void readAnts(AntColonySimulation sim, ByteBuffer b)
+    {
+        AntPool ants = sim.ants;
+        int n = b.getInt();
+        ants.setSize(n);
+
+        getFloats(b, ants.posX, n);
+        getFloats(b, ants.posY, n);
+        getFloats(b, ants.velX, n);
+        getFloats(b, ants.velY, n);
+        getFloats(b, ants.accX, n);
+        getFloats(b, ants.accY, n);
+        getFloats(b, ants.nrg, n);
+        getFloats(b, ants.age, n);
+        getFloats(b, ants.maxAge, n);
+        getFloats(b, ants.pherStr, n);
+
+        b.asIntBuffer().get(ants.colonyId, 0, n);
+        b.position(b.position() + n * 4);
+
+        for (int i = 0; i < n; i++)
+        {
+            ants.hasFood[i] = b.get() != 0;
+        }
+        b.get(ants.state, 0, n);
+
+        b.asLongBuffer().get(ants.rngState, 0, n);
+        b.position(b.position() + n * 8);
+
+        ants.population.recount(ants);
+    }
+
+    private static void readLeaves(AntColonySimulation sim, ByteBuffer b)
+    {
+        int n = b.getInt();
+        sim.leafPool.releaseAll(sim.fallingLeaves);
+        sim.fallingLeaves.clear();
+        sim.fallingLeaves.ensureCapacity(n);
+
+        for (int k = 0; k < n; k++)
+        {
+            float x = b.getFloat();
+            float y = b.getFloat();
+            float vx = b.getFloat();
+            float vy = b.getFloat();
+            float amount = b.getFloat();
+            int col = b.getInt();
+
+            sim.fallingLeaves.add(sim.leafPool.obtain(x, y, vx, vy, amount, col));
+        }
+    }
+
+    private static void readPheromones(AntColonySimulation sim, FileChannel ch, long pos, ByteBuffer chunk)
+        throws IOException
+    {
+        PheromoneField field = sim.pheromones;
+        ByteBuffer b = read(ch, pos, 2 * 4);
+        int channels = b.getInt();
+        int cells = b.getInt();
+        pos += 2 * 4;
+
+        if (channels != PheromoneField.CHANNELS || cells != field.cols * field.rows)
+        {
+            throw new IOException("Snapshot pheromone grid does not match the world");
+        }
+
+        for (int c = 0; c < channels; c++)
+        {
+            int channel = c;
+            pos = readFloats(ch, pos, chunk, cells, (from, buf) -> field.importChannel(channel, from, buf));
+        }
+
+        field.finishImport();
+    }
+
+    private static void readLazyDecay(LazyPheromoneField field, FileChannel ch, long pos, ByteBuffer chunk)
+        throws IOException
+    {
+        ByteBuffer b = read(ch, pos, 2 * 4 + PheromoneField.CHANNELS * 8);
+        int channels = b.getInt();
+        int cells = b.getInt();
+        pos += 2 * 4 + PheromoneField.CHANNELS * 8;
+
+        if (channels != PheromoneField.CHANNELS || cells != field.cols * field.rows)
+        {
+            throw new IOException("Snapshot pheromone grid does not match the world");
+        }
+
+        for (int c = 0; c < channels; c++)
+        {
+            field.setClock(c, b.getDouble());
+        }
+
+        for (int c = 0; c < channels; c++)
+        {
+            int channel = c;
+            pos = readFloats(ch, pos, chunk, cells, (from, buf) -> field.importStored(channel, from, buf));
+            pos = readDoubles(ch, pos, chunk, cells, (from, buf) -> field.importStamps(channel, from, buf));
+        }
+
+        field.finishImport();
+    }
+
+    // --- Helpers ---
+
+    private static void writeStats(ColonyStats s, ByteBuffer b)
+    {
+        b.putInt(s.tempFood).putInt(s.tempBirths).putInt(s.tempDeaths);
+        b.putInt(s.dailyFood).putInt(s.dailyBirths).putInt(s.dailyDeaths);
+    }
+
+    private static void readStats(ColonyStats s, ByteBuffer b)
+    {
+        s.tempFood = b.getInt();
+        s.tempBirths = b.getInt();
+        s.tempDeaths = b.getInt();
+
+        s.dailyFood = b.getInt();
+        s.dailyBirths = b.getInt();
+        s.dailyDeaths = b.getInt();
+    }
+
+    /**
+     * Allocates a section buffer and writes its header.
+     */
+    private static ByteBuffer section(int id, int payload)
+    {
+        return section(id, payload, payload);
+    }
+
+    /**
+     * Allocates the buffer of a streamed section: its header and the first
+     * {@code buffered} bytes of a {@code payload}-byte payload.
+     */
+    private static ByteBuffer section(int id, long payload, int buffered)
+    {
+        ByteBuffer b = allocate(SECTION_HEADER + buffered);
+        b.putInt(id).putLong(payload);
+        return b;
+    }
+
+    private static ByteBuffer allocate(int bytes)
+    {
+        return ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Streams {@code count} floats from a range source through the chunk buffer.
+     */
+    private static void writeFloats(FileChannel ch, ByteBuffer chunk, int count, FloatRange src) throws IOException
+    {
+        int step = chunk.capacity() / 4;
+
+        for (int from = 0; from < count; from += step)
+        {
+            int n = Math.min(step, count - from);
+
+            chunk.clear();
+            FloatBuffer view = chunk.asFloatBuffer();
+            view.limit(n);
+            src.copy(from, view);
+
+            chunk.limit(n * 4);
+            writeFully(ch, chunk);
+        }
+    }
+
+    /**
+     * Streams {@code count} doubles from a range source through the chunk buffer.
+     */
+    private static void writeDoubles(FileChannel ch, ByteBuffer chunk, int count, DoubleRange src) throws IOException
+    {
+        int step = chunk.capacity() / 8;
+
+        for (int from = 0; from < count; from += step)
+        {
+            int n = Math.min(step, count - from);
+
+            chunk.clear();
+            DoubleBuffer view = chunk.asDoubleBuffer();
+            view.limit(n);
+            src.copy(from, view);
+
+            chunk.limit(n * 8);
+            writeFully(ch, chunk);
+        }
+    }
+
+    /**
+     * Streams {@code count} floats read at a file position into a range destination.
+     * @return Position after the floats.
+     */
+    private static long readFloats(FileChannel ch, long pos, ByteBuffer chunk, int count, FloatRange dst)
+        throws IOException
+    {
+        int step = chunk.capacity() / 4;
+
+        for (int from = 0; from < count; from += step)
+        {
+            int n = Math.min(step, count - from);
+
+            chunk.clear().limit(n * 4);
+            readFully(ch, chunk, pos);
+            pos += n * 4L;
+
+            dst.copy(from, chunk.flip().asFloatBuffer());
+        }
+
+        return pos;
+    }
+
+    /**
+     * Streams {@code count} doubles read at a file position into a range destination.
+     * @return Position after the doubles.
+     */
+    private static long readDoubles(FileChannel ch, long pos, ByteBuffer chunk, int count, DoubleRange dst)
+        throws IOException
+    {
+        int step = chunk.capacity() / 8;
+
+        for (int from = 0; from < count; from += step)
+        {
+            int n = Math.min(step, count - from);
+
+            chunk.clear().limit(n * 8);
+            readFully(ch, chunk, pos);
+            pos += n * 8L;
+
+            dst.copy(from, chunk.flip().asDoubleBuffer());
+        }
+
+        return pos;
+    }
+
+    /**
+     * Reads a block of the file into a new buffer.
+     */
+    private static ByteBuffer read(FileChannel ch, long pos, int bytes) throws IOException
+    {
+        ByteBuffer b = allocate(bytes);
+        readFully(ch, b, pos);
+        return b.flip();
+    }
+
+    /**
+     * Fills the remaining space of a buffer from a file position.
+     */
+    private static void readFully(FileChannel ch, ByteBuffer b, long pos) throws IOException
+    {
+        while (b.hasRemaining())
+        {
+            int n = ch.read(b, pos);
+            if (n < 0)
+            {
+                throw new IOException("Truncated snapshot");
+            }
+            pos += n;
+        }
+    }
+
+    /**
+     * Writes the remaining content of a buffer (a write may be partial).
+     */
+    private static void writeFully(FileChannel ch, ByteBuffer b) throws IOException
+    {
+        while (b.hasRemaining())
+        {
+            ch.write(b);
+        }
+    }
+
+    private static void putFloats(ByteBuffer b, float[] values, int n)
+    {
+        b.asFloatBuffer().put(values, 0, n);
+        b.position(b.position() + n * 4);
+    }
+
+    private static void getFloats(ByteBuffer b, float[] values, int n)
+    {
+        b.asFloatBuffer().get(values, 0, n);
+        b.position(b.position() + n * 4);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,348 @@
+package antcolony;
+
+import antcolony.data.SimulationParams;
+import antcolony.environment.PheromoneOverlay;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the physics on a dedicated thread, decoupled from the frame rate.
+ * <p>
+ * The thread advances the world with fixed time steps (see
+ * {@link SimulationEngine#step()}) at a target number of ticks per second,
+ * or as fast as the CPU allows. The Processing animation thread no longer
+ * runs any physics: it forwards the slider values and draws the latest
+ * {@link RenderSnapshot} published by this thread.
+ * </p>
+ * <p>
+ * Snapshots are triple-buffered: the simulation thread fills the back
+ * buffer and swaps it with the "ready" one, and the render thread swaps the
+ * ready buffer with its front buffer when a newer one is available. Both
+ * swaps are a few reference assignments under a small lock, so neither
+ * thread ever waits for the other to finish copying or drawing.
+ * </p>
+ * <p>
+ * Anything else that mutates the world from the UI (reset) must go through
+ * {@link #runExclusive(Runnable)}, which runs between two ticks.
+ * </p>
+ */
+public class SimulationThread
+{
+    /**
+     * Minimum delay between two published snapshots (twice the 60 FPS frame rate).
+     */
+    private static final long PUBLISH_INTERVAL_NS = 1_000_000_000L / 120;
+
+    /**
+     * Polling delay while paused.
+     */
+    private static final long PAUSE_POLL_NS = 5_000_000L;
+
+    /**
+     * Largest backlog kept when the target rate cannot be reached (the rest is dropped).
+     */
+    private static final long MAX_LAG_NS = 100_000_000L;
+
+    /**
+     * Length of the window over which the tick rate is measured.
+     */
+    private static final long RATE_WINDOW_NS = 500_000_000L;
+
+    /**
+     * Fixed-step driver of the world.
+     */
+    private final SimulationEngine engine;
+
+    /**
+     * Pheromone layer, kept up to date on this thread and copied into the snapshots.
+     */
+    private final PheromoneOverlay overlay = new PheromoneOverlay();
+
+    /**
+     * Guards the world: held during every tick, every capture and every exclusive action.
+     */
+    private final Object worldLock = new Object();
+
+    /**
+     * Latest parameters forwarded by the UI (guarded by itself).
+     */
+    private final SimulationParams pendingParams = new SimulationParams();
+
+    // --- Snapshot Buffers (Guarded by bufferLock) ---
+
+    private final Object bufferLock = new Object();
+
+    /** Snapshot being filled by the simulation thread. */
+    private RenderSnapshot back = new RenderSnapshot();
+
+    /** Most recent complete snapshot. */
+    private RenderSnapshot ready = new RenderSnapshot();
+
+    /** Snapshot currently drawn by the render thread. */
+    private RenderSnapshot front = new RenderSnapshot();
+
+    /** Whether {@link #ready} is newer than {@link #front}. */
+    private boolean fresh = false;
+
+    // --- Controls (Written by the UI thread) ---
+
+    private volatile boolean running = false;
+    private volatile boolean paused = false;
+    private volatile float targetTps = 60;
+    private volatile boolean republish = true;
+
+    /**
+     * Measured rate over the last window, in ticks per second.
+     */
+    private volatile double measuredTps = 0;
+
+    /**
+     * Total number of snapshots published.
+     */
+    private volatile long published = 0;
+
+    /**
+     * The worker thread (null until started).
+     */
+    private Thread thread;
+
+    /**
+     * Simulation Thread Constructor.
+     * @param sim World that has already been set up.
+     * @param params Initial parameters.
+     */
+    public SimulationThread(AntColonySimulation sim, SimulationParams params)
+    {
+        this.engine = new SimulationEngine(sim, new SimulationParams());
+        this.engine.params.set(params);
+        this.pendingParams.set(params);
+    }
+
+    /**
+     * Publishes a first snapshot and starts the worker thread.
+     */
+    public void start()
+    {
+        publish();
+
+        running = true;
+        thread = new Thread(this::loop, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the worker thread and waits for it to finish its current tick.
+     */
+    public void stop()
+    {
+        running = false;
+
+        if (thread == null)
+        {
+            return;
+        }
+
+        LockSupport.unpark(thread);
+
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Forwards the UI parameters (applied before the next tick).
+     * @param params Current slider values (copied).
+     */
+    public void setParams(SimulationParams params)
+    {
+        synchronized (pendingParams)
+        {
+            pendingParams.set(params);
+        }
+    }
+
+    /**
+     * Freezes or resumes the physics.
+     * @param paused true to stop ticking.
+     */
+    public void setPaused(boolean paused)
+    {
+        this.paused = paused;
+    }
+
+    /**
+     * Sets the pace of the simulation.
+     * @param tps Target ticks per second; 0 or less runs as fast as possible.
+     */
+    public void setTargetTps(float tps)
+    {
+        this.targetTps = tps;
+    }
+
+    /**
+     * Runs an action that mutates the world, between two ticks.
+     * <p>
+     * The action runs on the calling thread while the simulation thread is
+     * held; a new snapshot is published right after.
+     * </p>
+     * @param action Action to run (e.g. a reset).
+     */
+    public void runExclusive(Runnable action)
+    {
+        synchronized (worldLock)
+        {
+            action.run();
+            republish = true;
+        }
+    }
+
+    /**
+     * Returns the most recent snapshot for drawing.
+     * <p>
+     * Must be called by the render thread only. The returned snapshot stays
+     * untouched until the next call.
+     * </p>
+     * @return Latest published snapshot.
+     */
+    public RenderSnapshot acquire()
+    {
+        synchronized (bufferLock)
+        {
+            if (fresh)
+            {
+                RenderSnapshot t = front;
+                front = ready;
+                ready = t;
+                fresh = false;
+            }
+
+            return front;
+        }
+    }
+
+    /**
+     * Tick rate measured over the last half second.
+     * @return Ticks per second (0 while paused).
+     */
+    public double getTicksPerSecond()
+    {
+        return measuredTps;
+    }
+
+    /**
+     * Number of snapshots published since the start.
+     * @return Snapshot count.
+     */
+    public long getPublishedCount()
+    {
+        return published;
+    }
+
+    /**
+     * Main loop of the worker thread.
+     */
+    private void loop()
+    {
+        long next = System.nanoTime();
+        long lastPublish = next;
+        long rateStart = next;
+        long rateTicks = 0;
+
+        while (running)
+        {
+            if (paused)
+            {
+                if (republish)
+                {
+                    publish();
+                }
+
+                measuredTps = 0;
+                LockSupport.parkNanos(PAUSE_POLL_NS);
+
+                next = System.nanoTime();
+                rateStart = next;
+                rateTicks = 0;
+                continue;
+            }
+
+            // 1. One physics tick with the latest parameters
+            synchronized (worldLock)
+            {
+                synchronized (pendingParams)
+                {
+                    engine.params.set(pendingParams);
+                }
+
+                engine.step();
+            }
+            rateTicks++;
+
+            long now = System.nanoTime();
+
+            // 2. Snapshot for the renderer (at most twice per displayed frame)
+            if (republish || now - lastPublish >= PUBLISH_INTERVAL_NS)
+            {
+                publish();
+                lastPublish = now;
+            }
+
+            if (now - rateStart >= RATE_WINDOW_NS)
+            {
+                measuredTps = rateTicks * 1e9 / (now - rateStart);
+                rateStart = now;
+                rateTicks = 0;
+            }
+
+            // 3. Pacing
+            float tps = targetTps;
+
+            if (tps <= 0)
+            {
+                next = now;
+                continue;
+            }
+
+            next += (long) (1e9 / tps);
+            long wait = next - System.nanoTime();
+
+            if (wait > 0)
+            {
+                LockSupport.parkNanos(wait);
+            }
+            else if (-wait > MAX_LAG_NS)
+            {
+                // Too far behind: drop the backlog instead of bursting to catch up
+                next = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Captures the world into the back buffer and makes it the ready one.
+     */
+    private void publish()
+    {
+        synchronized (worldLock)
+        {
+            republish = false;
+            back.capture(engine.sim, overlay, engine.getTicks());
+        }
+
+        synchronized (bufferLock)
+        {
+            RenderSnapshot t = ready;
+            ready = back;
+            back = t;
+            fresh = true;
+        }
+
+        published++;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,425 @@
+package antcolony;
+
+import antcolony.data.SimulationParams;
+import processing.core.PApplet;
+
+/**
+ * Fast-forward ("time warp") to a target day or by a number of ticks.
+ * <p>
+ * The Time Acceleration slider stops at 10 ticks per frame, and every frame
+ * still pays for the full scene. While a warp is active, the frame runs
+ * {@link SimulationEngine#step()} in a tight loop for about
+ * {@link #SLICE_NS} and then draws only a small progress panel over the
+ * last rendered frame, so the overlay refreshes a few times per second and
+ * almost all of the time goes to the physics. Normal rendering resumes
+ * when the target is reached or the warp is cancelled (any key), and the
+ * achieved tick rate is reported.
+ * </p>
+ * <p>
+ * The target is entered with a small prompt opened by the {@code T} key:
+ * digits, {@code TAB} to switch between a target day and a number of
+ * ticks, {@code ENTER} to start and {@code ESC} to close it. Targets the
+ * float world clock cannot reach (see {@link #MAX_CLOCK}) are refused.
+ * </p>
+ */
+public class TimeWarp
+{
+    /**
+     * Physics time between two overlay refreshes (about four per second).
+     */
+    private static final long SLICE_NS = 250_000_000L;
+
+    /**
+     * How long the final report stays on screen, in milliseconds.
+     */
+    private static final int REPORT_MS = 4000;
+
+    /**
+     * Largest number of digits accepted by the prompt.
+     */
+    private static final int MAX_DIGITS = 9;
+
+    /**
+     * Largest clock value a warp may target.
+     * <p>
+     * The world clock is a float advanced one tick at a time: at 2^24 ticks
+     * (about day 11651) adding a tick no longer changes it, so a later
+     * target would never be reached.
+     * </p>
+     */
+    private static final float MAX_CLOCK = 1 << 24;
+
+    /**
+     * Simulation being warped.
+     */
+    private final AntColonySimulation sim;
+
+    /**
+     * Fixed-step driver (same ticks as headless runs and the simulation thread).
+     */
+    private final SimulationEngine engine;
+
+    // --- Prompt ---
+
+    /** Whether the target prompt is open. */
+    private boolean prompting = false;
+
+    /** Whether the prompt value is a tick count (otherwise a target day). */
+    private boolean inTicks = false;
+
+    /** Digits typed so far. */
+    private final StringBuilder input = new StringBuilder();
+
+    // --- Active Warp ---
+
+    /** Whether a warp is running. */
+    private boolean active = false;
+
+    /** Clock value ({@code worldTime}) when the warp started. */
+    private float startTime;
+
+    /** Clock value to reach. */
+    private float targetTime;
+
+    /** Whether the target is the start of a day (otherwise a tick count). */
+    private boolean toDay;
+
+    /** Ticks run by the current warp. */
+    private long warpTicks;
+
+    /** Wall-clock start of the current warp. */
+    private long startNanos;
+
+    // --- Result ---
+
+    /**
+     * Summary of the last warp (null before the first one).
+     */
+    public String lastReport;
+
+    /** Time (millis) until which the last report is shown. */
+    private int reportUntil;
+
+    /**
+     * Time Warp Constructor.
+     * @param sim Simulation to fast-forward.
+     */
+    public TimeWarp(AntColonySimulation sim)
+    {
+        this.sim = sim;
+        this.engine = new SimulationEngine(sim, new SimulationParams());
+    }
+
+    /**
+     * Checks whether a warp is running (rendering suspended).
+     * @return true while warping.
+     */
+    public boolean isActive()
+    {
+        return active;
+    }
+
+    /**
+     * Starts a warp to the beginning of a given day.
+     * @param day Target day (1 = first day).
+     * @return false if that day has already been reached or is beyond the clock range.
+     */
+    public boolean startToDay(int day)
+    {
+        return start((day - 1) * (float) sim.time.dayLength, true);
+    }
+
+    /**
+     * Starts a warp of a given number of ticks.
+     * @param ticks Ticks to run.
+     * @return false if the count is not positive or goes beyond the clock range.
+     */
+    public boolean startTicks(long ticks)
+    {
+        return start(sim.time.worldTime + ticks, false);
+    }
+
+    /**
+     * Starts a warp to an absolute clock value, or reports why it cannot.
+     */
+    private boolean start(float target, boolean toDay)
+    {
+        if (target <= sim.time.worldTime)
+        {
+            reject("target already reached");
+            return false;
+        }
+
+        if (target > MAX_CLOCK)
+        {
+            reject(String.format("the clock stops counting after day %d", (int) (MAX_CLOCK / sim.time.dayLength) + 1));
+            return false;
+        }
+
+        active = true;
+        startTime = sim.time.worldTime;
+        targetTime = target;
+        this.toDay = toDay;
+        warpTicks = 0;
+        startNanos = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * Stops the current warp before the target (the world keeps its progress).
+     */
+    public void cancel()
+    {
+        if (active)
+        {
+            finish(true);
+        }
+    }
+
+    /**
+     * Runs the physics for one slice (or until the target is reached).
+     * <p>
+     * The caller must own the world (animation thread, or inside
+     * {@link SimulationThread#runExclusive(Runnable)}).
+     * </p>
+     * @param params Current slider values, applied to every tick.
+     */
+    public void advance(SimulationParams params)
+    {
+        if (!active)
+        {
+            return;
+        }
+
+        engine.params.set(params);
+
+        long sliceEnd = System.nanoTime() + SLICE_NS;
+
+        while (sim.time.worldTime < targetTime)
+        {
+            engine.step();
+            warpTicks++;
+
+            if (System.nanoTime() >= sliceEnd)
+            {
+                return;
+            }
+        }
+
+        finish(false);
+    }
+
+    /**
+     * Ends the warp and records the achieved rate.
+     */
+    private void finish(boolean cancelled)
+    {
+        active = false;
+
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1e9, 1e-9);
+
+        lastReport = String.format("Time warp %s: %d ticks in %.2f s (%.0f ticks/s), day %d",
+                cancelled ? "cancelled" : "done", warpTicks, seconds, warpTicks / seconds, sim.time.curDay);
+        reportUntil = -1;
+
+        System.out.println(lastReport);
+    }
+
+    /**
+     * Shows why a warp was not started.
+     */
+    private void reject(String reason)
+    {
+        lastReport = "Time warp: " + reason;
+        reportUntil = -1;
+    }
+
+    /**
+     * Keyboard handling of the prompt and of an active warp.
+     * @param p PApplet reference (its {@code key} is cleared when ESC is consumed).
+     * @return true if the key was consumed.
+     */
+    public boolean keyPressed(PApplet p)
+    {
+        if (active)
+        {
+            // Any key cancels; ESC must not close the window
+            cancel();
+            p.key = 0;
+            return true;
+        }
+
+        if (!prompting)
+        {
+            if (p.key == 't' || p.key == 'T')
+            {
+                prompting = true;
+                input.setLength(0);
+                return true;
+            }
+
+            return false;
+        }
+
+        if (p.key == PApplet.ESC)
+        {
+            prompting = false;
+            p.key = 0;
+        }
+        else if (p.key == PApplet.TAB)
+        {
+            inTicks = !inTicks;
+        }
+        else if (p.key == PApplet.BACKSPACE)
+        {
+            if (input.length() > 0)
+            {
+                input.setLength(input.length() - 1);
+            }
+        }
+        else if (p.key == PApplet.ENTER || p.key == PApplet.RETURN)
+        {
+            if (input.length() > 0)
+            {
+                long value = Long.parseLong(input.toString());
+                prompting = false;
+
+                if (inTicks)
+                {
+                    startTicks(value);
+                }
+                else
+                {
+                    startToDay((int) value);
+                }
+            }
+        }
+        else if (p.key >= '0' && p.key <= '9' && input.length() < MAX_DIGITS)
+        {
+            input.append(p.key);
+        }
+
+        return true;
+    }
+
+    /**
+     * Draws the progress panel of an active warp (over the last rendered frame).
+     * @param p PApplet reference.
+     */
+    public void drawProgress(PApplet p)
+    {
+        float progress = (sim.time.worldTime - startTime) / (targetTime - startTime);
+        double seconds = Math.max((System.nanoTime() - startNanos) / 1e9, 1e-9);
+
+        float w = 360;
+        float h = 110;
+        float x = centerX(p) - w / 2;
+        float y = p.height / 2f - h / 2;
+
+        drawPanel(p, x, y, w, h);
+
+        p.fill(255, 220, 0);
+        p.textAlign(PApplet.LEFT, PApplet.TOP);
+        p.textSize(18);
+        p.text("TIME WARP", x + 20, y + 14);
+
+        p.fill(220);
+        p.textSize(13);
+        p.text(String.format("Day %d, %02d:%02d  ->  %s", sim.time.curDay, sim.time.curHour, sim.time.curMin,
+                targetLabel()), x + 20, y + 42);
+
+        // Progress bar
+        p.noStroke();
+        p.fill(70);
+        p.rect(x + 20, y + 64, w - 40, 10, 3);
+        p.fill(255, 220, 0);
+        p.rect(x + 20, y + 64, (w - 40) * PApplet.constrain(progress, 0, 1), 10, 3);
+
+        p.fill(160);
+        p.text(String.format("%.0f ticks/s  |  any key to cancel", warpTicks / seconds), x + 20, y + 82);
+    }
+
+    /**
+     * Draws the prompt or the last report, if any (on top of a normal frame).
+     * @param p PApplet reference.
+     */
+    public void drawOverlay(PApplet p)
+    {
+        if (prompting)
+        {
+            float w = 360;
+            float h = 74;
+            float x = centerX(p) - w / 2;
+            float y = p.height / 2f - h / 2;
+
+            drawPanel(p, x, y, w, h);
+
+            p.fill(255, 220, 0);
+            p.textAlign(PApplet.LEFT, PApplet.TOP);
+            p.textSize(16);
+            p.text((inTicks ? "Warp by ticks: " : "Warp to day: ") + input + "_", x + 20, y + 14);
+
+            p.fill(160);
+            p.textSize(12);
+            p.text("ENTER start  |  TAB " + (inTicks ? "day" : "ticks") + "  |  ESC close", x + 20, y + 46);
+            return;
+        }
+
+        if (lastReport == null)
+        {
+            return;
+        }
+
+        // The report timer starts with the first frame drawn after the warp
+        if (reportUntil < 0)
+        {
+            reportUntil = p.millis() + REPORT_MS;
+        }
+        else if (p.millis() > reportUntil)
+        {
+            return;
+        }
+
+        p.textSize(13);
+        float w = p.textWidth(lastReport) + 30;
+        float x = centerX(p) - w / 2;
+
+        drawPanel(p, x, 20, w, 30);
+
+        p.fill(255);
+        p.textAlign(PApplet.LEFT, PApplet.TOP);
+        p.text(lastReport, x + 15, 27);
+    }
+
+    /**
+     * Description of the target shown on the progress panel.
+     */
+    private String targetLabel()
+    {
+        if (toDay)
+        {
+            return "Day " + ((int) (targetTime / sim.time.dayLength) + 1);
+        }
+
+        return String.format("+%d ticks", (long) (targetTime - startTime));
+    }
+
+    /**
+     * Horizontal centre of the playable area (between the sidebars).
+     */
+    private float centerX(PApplet p)
+    {
+        return (sim.leftSidebarW + p.width - sim.rightSidebarW) / 2f;
+    }
+
+    /**
+     * Draws an opaque rounded panel.
+     */
+    private void drawPanel(PApplet p, float x, float y, float w, float h)
+    {
+        p.stroke(255, 60);
+        p.strokeWeight(1);
+        p.fill(30, 30, 35);
+        p.rect(x, y, w, h, 6);
+    }
+}
\ No newline at end of file
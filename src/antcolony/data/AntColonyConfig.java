@@ -45,6 +45,155 @@ public class AntColonyConfig
      */
     public static final int RESOLUTION = 4;
 
+    /**
+     * Number of threads used by the pheromone evaporation pass.
+     * <p>
+     * 1 runs the classic serial sweep. Higher values split the playable
+     * grid into stripes processed on a fork-join pool (useful at fine
+     * resolutions, where the grid has hundreds of thousands of cells).
+     * </p>
+     */
+    public static final int EVAPORATION_THREADS = 1;
+
+    /**
+     * Number of threads used to update the ants.
+     * <p>
+     * 1 runs the classic serial update. Higher values run the ant AI on a
+     * fork-join pool: sensing uses the pheromone field as it was at the
+     * start of the tick, and deposits, leaf consumption and food deliveries
+     * are buffered per worker and merged deterministically afterwards.
+     * </p>
+     */
+    public static final int ANT_UPDATE_THREADS = 1;
+
+    /**
+     * Selects the lazy (time-stamped) pheromone evaporation at startup.
+     * <p>
+     * When true, cells are decayed only when they are read or written,
+     * removing the per-tick full-grid sweep. When false, the classic
+     * eager sweep is used. Ignored when {@link #PHEROMONE_BITS} selects
+     * quantized storage.
+     * </p>
+     */
+    public static final boolean LAZY_EVAPORATION = false;
+
+    /**
+     * Selects the sparse (active-cell) pheromone evaporation at startup.
+     * <p>
+     * When true, only cells holding pheromone are evaporated, and cells
+     * falling below {@link #EVAPORATION_CUTOFF} are cleared and forgotten.
+     * Ignored when {@link #LAZY_EVAPORATION} is enabled.
+     * </p>
+     */
+    public static final boolean SPARSE_EVAPORATION = false;
+
+    /**
+     * Intensity below which a pheromone cell is cleared in sparse mode.
+     */
+    public static final float EVAPORATION_CUTOFF = 0.001f;
+
+    /**
+     * Bits used to store each pheromone value: 32 (float), 16 or 8.
+     * <p>
+     * 16 and 8 select the quantized (fixed-point) storage, which trades
+     * precision for memory bandwidth in the evaporation and rendering
+     * sweeps. Quantized storage is always swept eagerly, so 16 and 8 take
+     * precedence over {@link #LAZY_EVAPORATION} and
+     * {@link #SPARSE_EVAPORATION}. Ignored by the memory-mapped field
+     * ({@code --pheromone-file}), which stores floats.
+     * </p>
+     */
+    public static final int PHEROMONE_BITS = 32;
+
+    /**
+     * Selects the vectorizable pheromone kernels at startup.
+     * <p>
+     * When false, evaporation uses the scalar per-cell loop (all four
+     * channels fused). Can be overridden at launch with
+     * {@code -Dantcolony.kernels=simd|scalar}.
+     * </p>
+     */
+    public static final boolean SIMD_KERNELS = true;
+
+    /**
+     * Resolution of the heading lookup table used for ant wandering
+     * (number of headings in a full turn, a power of two).
+     * <p>
+     * 0 keeps exact trigonometry (reproduces the reference state hashes);
+     * 1024 rounds headings to steps of about 0.35 degrees. Can be overridden at
+     * launch with {@code -Dantcolony.headingSteps=N}.
+     * </p>
+     */
+    public static final int HEADING_TABLE_STEPS = 0;
+
+    /**
+     * Runs the physics on a dedicated thread in the windowed application.
+     * <p>
+     * The animation thread then only draws the latest published snapshot,
+     * so the frame rate no longer drops at high Time Acceleration. Can also
+     * be enabled with {@code --sim-thread}.
+     * </p>
+     */
+    public static final boolean SIMULATION_THREAD = false;
+
+    /**
+     * Target rate of the simulation thread, in ticks per second.
+     * <p>
+     * 0 follows the Time Acceleration slider (speed x 60 ticks per second,
+     * the pace of the classic loop at 60 FPS). A negative value runs as
+     * fast as the CPU allows.
+     * </p>
+     */
+    public static final int SIMULATION_THREAD_TPS = 0;
+
+    /**
+     * Draws the state label ("S", "R", "W") above each ant.
+     */
+    public static final boolean ANT_LABELS = true;
+
+    /**
+     * Population above which the ant labels are hidden (level of detail).
+     * <p>
+     * Text is by far the most expensive part of drawing the ants; past a
+     * few hundred ants the labels overlap and cannot be read anyway.
+     * </p>
+     */
+    public static final int ANT_LABEL_MAX_ANTS = 300;
+
+    /**
+     * Number of lighting levels of the cached underground layer.
+     * <p>
+     * The ground is re-rendered only when the (dawn/dusk) lighting crosses
+     * into another level, so a higher value means smoother transitions and
+     * more redraws.
+     * </p>
+     */
+    public static final int BACKGROUND_LIGHT_LEVELS = 32;
+
+    /**
+     * Radius (in pixels) of the permanent "Home" zone around each queen.
+     */
+    public static final float NEST_RADIUS = 25;
+
+    /**
+     * Bucket size (in pixels) of the spatial index used for leaf lookups.
+     * <p>
+     * Should be in the order of the ant pickup radius; larger queries
+     * (e.g. the smell radius) simply visit more buckets.
+     * </p>
+     */
+    public static final int LEAF_GRID_CELL = 32;
+
+    /**
+     * Largest number of consumed leaves kept for reuse (see {@code LeafPool}).
+     * <p>
+     * Should cover the number of leaves alive at the busiest time of the
+     * year (several hundred when the colonies starve in autumn); extra
+     * leaves released after a burst are garbage collected.
+     * </p>
+     */
+    public static final int LEAF_POOL_MAX = 1024;
+
     /**
      * Initial number of ants to create at simulation startup.
      * <p>
@@ -72,6 +72,15 @@ public class ColonyStats
         tempDeaths++;
     }
 
+    /**
+     * Records several deaths at once (bulk update at the end of a sweep).
+     * @param n Number of deaths.
+     */
+    public void registerDeaths(int n)
+    {
+        tempDeaths += n;
+    }
+
     /**
      * Finalizes the daily statistics cycle.
      * <p>
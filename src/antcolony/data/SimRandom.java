@@ -0,0 +1,129 @@
+package antcolony.data;
+
+/**
+ * Seedable, splittable pseudo-random number stream (SplitMix64).
+ * <p>
+ * Replaces the global {@code PApplet.random()}: every consumer owns its own
+ * stream, so there is no shared state to lock and two runs started with the
+ * same seed produce exactly the same sequence of events.
+ * </p>
+ * <p>
+ * The whole state is a single {@code long}, which makes streams cheap enough
+ * to keep one per ant (see {@link #getState()} / {@link #setState(long)}).
+ * {@link #split()} derives a new, statistically independent stream.
+ * </p>
+ */
+public class SimRandom
+{
+    /**
+     * Increment of the Weyl sequence (odd, derived from the golden ratio).
+     */
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Current state of the stream.
+     */
+    private long state;
+
+    /**
+     * Random Stream Constructor.
+     * @param seed Initial seed (any value).
+     */
+    public SimRandom(long seed)
+    {
+        this.state = seed;
+    }
+
+    /**
+     * Creates a new independent stream seeded from this one.
+     * @return The derived stream (this stream advances by one step).
+     */
+    public SimRandom split()
+    {
+        return new SimRandom(nextSeed());
+    }
+
+    /**
+     * Draws a value suitable as the seed of another stream.
+     * @return A well-mixed 64-bit seed.
+     */
+    public long nextSeed()
+    {
+        // A second mixing round decorrelates the child from its parent's outputs
+        return mix(nextLong() ^ GAMMA);
+    }
+
+    /**
+     * Returns the next 64 random bits.
+     * @return Uniformly distributed long.
+     */
+    public long nextLong()
+    {
+        state += GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * Returns a uniformly distributed float.
+     * @return Value in [0, 1).
+     */
+    public float nextFloat()
+    {
+        // The 24 high bits fill the float mantissa exactly
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Returns a random float between 0 and a bound (same contract as {@code PApplet.random(high)}).
+     * @param high Upper bound (exclusive).
+     * @return Value in [0, high).
+     */
+    public float random(float high)
+    {
+        return nextFloat() * high;
+    }
+
+    /**
+     * Returns a random float in a range (same contract as {@code PApplet.random(low, high)}).
+     * @param low Lower bound (inclusive).
+     * @param high Upper bound (exclusive).
+     * @return Value in [low, high).
+     */
+    public float random(float low, float high)
+    {
+        if (low >= high)
+        {
+            return low;
+        }
+
+        return low + nextFloat() * (high - low);
+    }
+
+    /**
+     * Returns the raw state (to store a stream outside of this object).
+     * @return Current state.
+     */
+    public long getState()
+    {
+        return state;
+    }
+
+    /**
+     * Restores a raw state previously obtained with {@link #getState()}.
+     * @param state State to restore.
+     */
+    public void setState(long state)
+    {
+        this.state = state;
+    }
+
+    /**
+     * SplitMix64 output function (variant 13 of Stafford's mixers).
+     */
+    private static long mix(long z)
+    {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,76 @@
+package antcolony.data;
+
+/**
+ * Tunable parameters of a simulation run.
+ * <p>
+ * In the windowed application these values are owned by the sliders of the
+ * left sidebar (the fields below are their initial values). Headless runs
+ * (see {@code SimulationEngine}) receive them explicitly instead.
+ * </p>
+ */
+public class SimulationParams
+{
+    // --- Global ---
+
+    /**
+     * Physics steps executed per frame (Time Acceleration).
+     */
+    public int speed = 1;
+
+    /**
+     * Base probability of a leaf falling on each physics step.
+     */
+    public float leafRate = 0.042f;
+
+    // --- Blue Colony (A) ---
+
+    /**
+     * Energy consumed per tick by Blue ants.
+     */
+    public float metaA = 0.167f;
+
+    /**
+     * Food units required to spawn a Blue ant.
+     */
+    public int costA = 4;
+
+    /**
+     * Pheromone persistence (evaporation factor) of the Blue colony.
+     */
+    public float evapRateA = 0.995f;
+
+    // --- Red Colony (B) ---
+
+    /**
+     * Energy consumed per tick by Red ants.
+     */
+    public float metaB = 0.334f;
+
+    /**
+     * Food units required to spawn a Red ant.
+     */
+    public int costB = 3;
+
+    /**
+     * Pheromone persistence (evaporation factor) of the Red colony.
+     */
+    public float evapRateB = 0.995f;
+
+    /**
+     * Copies every value of another parameter set.
+     * @param other Source parameters.
+     */
+    public void set(SimulationParams other)
+    {
+        speed = other.speed;
+        leafRate = other.leafRate;
+
+        metaA = other.metaA;
+        costA = other.costA;
+        evapRateA = other.evapRateA;
+
+        metaB = other.metaB;
+        costB = other.costB;
+        evapRateB = other.evapRateB;
+    }
+}
\ No newline at end of file
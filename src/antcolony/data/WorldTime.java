@@ -87,6 +87,18 @@ public class WorldTime
         lastDayChecked = 0;
     }
 
+    /**
+     * Moves the clock to a given time without triggering the end-of-day event
+     * (used when restoring a snapshot, together with the saved statistics).
+     * @param ticks Elapsed time in ticks.
+     */
+    public void restore(float ticks)
+    {
+        worldTime = ticks;
+        lastDayChecked = (int) (worldTime / dayLength) + 1;
+        recalc(null, null);
+    }
+
     /**
      * Advances the simulation clock.
      * @param amount Amount of time to add (affected by the speed slider).
@@ -1,7 +1,7 @@
 package antcolony.entities;
 
 import antcolony.AntColonySimulation;
-import processing.core.PApplet;
+import antcolony.data.SimRandom;
 import processing.core.PVector;
 
 /**
@@ -11,6 +11,10 @@ import processing.core.PVector;
  * manages its own energy, and interacts with the environment through 
  * pheromones and food detection.
  * </p>
+ * <p>
+ * Living ants are stored in an {@link AntPool}; an instance of this class
+ * acts as a flyweight that is loaded from the pool, updated, and stored back.
+ * </p>
  */
 public class Ant
 {
@@ -75,6 +79,27 @@ public class Ant
      */
     public float smellRadius = 120.0f;
 
+    /**
+     * Private random stream of the ant (wandering, lifespan).
+     * <p>
+     * Each ant owns its stream, so the outcome of a tick does not depend on
+     * the order (or thread) in which ants are updated.
+     * </p>
+     */
+    public final SimRandom rng = new SimRandom(0);
+
+    /**
+     * Buffer receiving this ant's writes to shared state (pheromones, leaves,
+     * food stocks) during a parallel update. When null, writes are applied
+     * directly.
+     */
+    public DepositBuffer deposits;
+
+    /**
+     * Cached enum values (decodes the state ordinal stored in {@link AntPool}).
+     */
+    private static final AntState[] STATES = AntState.values();
+
     // --- Pheromone Channels (Calculated in the constructor) ---
     
     private int homeChannel;
@@ -82,26 +107,109 @@ public class Ant
 
     /**
      * Ant Constructor.
-     * @param p Reference to the PApplet (for randomness functions).
-     * @param sim Reference to the main simulation (for config access).
+     * @param sim Reference to the main simulation (config access and random seed).
+     * @param x Initial X position.
+     * @param y Initial Y position.
+     * @param colId ID of the colony it belongs to.
+     */
+    public Ant(AntColonySimulation sim, float x, float y, int colId)
+    {
+        this();
+        init(sim, x, y, colId);
+    }
+
+    /**
+     * Flyweight Constructor.
+     * <p>
+     * Creates an empty ant used as a reusable view over {@link AntPool}
+     * entries: its state is filled by {@link #load} before every use.
+     * </p>
+     */
+    public Ant()
+    {
+        this.phys = new AntPhysics();
+    }
+
+    /**
+     * Reinitializes every field as for a newborn ant.
+     * <p>
+     * Lets a single object be reused for every birth (see
+     * {@link AntColonySimulation#spawnAnt}): nothing is allocated, and the
+     * random streams are consumed exactly as by the constructor.
+     * </p>
+     * @param sim Reference to the main simulation (random seed).
      * @param x Initial X position.
      * @param y Initial Y position.
      * @param colId ID of the colony it belongs to.
      */
-    public Ant(PApplet p, AntColonySimulation sim, float x, float y, int colId)
+    public void init(AntColonySimulation sim, float x, float y, int colId)
     {
-        this.colonyId = colId;
+        colonyId = colId;
+        rng.setState(sim.random.nextSeed());
         
         // Calculates channels based on ID (0->0,1 | 1->2,3)
-        this.homeChannel = colId * 2;
-        this.foodChannel = colId * 2 + 1;
+        homeChannel = colId * 2;
+        foodChannel = colId * 2 + 1;
         
-        this.phys = new AntPhysics(p, x, y);
+        phys.init(rng, x, y);
         
-        this.nrg = maxNrg;
+        hasFood = false;
+        age = 0;
+        pherStr = 1.0f;
+        nrg = maxNrg;
         // Defines a random life expectancy for population variety
-        this.maxAge = p.random(2000, 5000);
-        this.state = AntState.SEARCHING;
+        maxAge = rng.random(2000, 5000);
+        state = AntState.SEARCHING;
+    }
+
+    /**
+     * Loads the state of a pooled ant into this (flyweight) object.
+     * @param pool Storage holding all ants.
+     * @param i Index of the ant to load.
+     */
+    public void load(AntPool pool, int i)
+    {
+        phys.pos.set(pool.posX[i], pool.posY[i]);
+        phys.vel.set(pool.velX[i], pool.velY[i]);
+        phys.acc.set(pool.accX[i], pool.accY[i]);
+
+        nrg = pool.nrg[i];
+        age = pool.age[i];
+        maxAge = pool.maxAge[i];
+        pherStr = pool.pherStr[i];
+
+        colonyId = pool.colonyId[i];
+        homeChannel = colonyId * 2;
+        foodChannel = colonyId * 2 + 1;
+
+        hasFood = pool.hasFood[i];
+        state = STATES[pool.state[i]];
+        rng.setState(pool.rngState[i]);
+    }
+
+    /**
+     * Writes the state of this object back into a pooled ant.
+     * @param pool Storage holding all ants.
+     * @param i Index of the ant to overwrite.
+     */
+    public void store(AntPool pool, int i)
+    {
+        pool.posX[i] = phys.pos.x;
+        pool.posY[i] = phys.pos.y;
+        pool.velX[i] = phys.vel.x;
+        pool.velY[i] = phys.vel.y;
+        pool.accX[i] = phys.acc.x;
+        pool.accY[i] = phys.acc.y;
+
+        pool.nrg[i] = nrg;
+        pool.age[i] = age;
+        pool.maxAge[i] = maxAge;
+        pool.pherStr[i] = pherStr;
+
+        pool.colonyId[i] = colonyId;
+        pool.hasFood[i] = hasFood;
+        pool.state[i] = (byte) state.ordinal();
+        pool.rngState[i] = rng.getState();
     }
 
     /**
@@ -125,10 +233,9 @@ public class Ant
 
     /**
      * Updates the main ant logic (AI, Physics, and Metabolism).
-     * @param p Reference to the PApplet.
      * @param sim Reference to the simulation.
      */
-    public void run(PApplet p, AntColonySimulation sim)
+    public void run(AntColonySimulation sim)
     {
         age++;
 
@@ -166,43 +273,41 @@ public class Ant
         {
             case SEARCHING:
                 // If it doesn't smell food directly, follow food pheromones
-                if (!smellFood(p, sim))
+                if (!smellFood(sim))
                 {
-                    state = followPheromones(p, sim, foodChannel);
+                    state = followPheromones(sim, foodChannel);
                 }
                 break;
 
             case RETURNING:
-                returnHome(p, sim);
+                returnHome(sim);
                 break;
 
             case WANDERING:
-                phys.wander();
+                phys.wander(rng);
                 break;
         }
 
         // 5. Physics Update
         phys.update();
-        phys.checkEdges(p, sim.leftSidebarW, sim.rightSidebarW, sim.surfaceY);
+        phys.checkEdges(sim.worldW, sim.worldH, sim.leftSidebarW, sim.rightSidebarW, sim.surfaceY);
         
         // 6. Interaction with the environment (leaving trail, picking up food)
-        interact(p, sim);
+        interact(sim);
     }
 
     /**
      * Logic to return home by following "Home" pheromones.
      */
-    private void returnHome(PApplet p, AntColonySimulation sim)
+    private void returnHome(AntColonySimulation sim)
     {
         // Obtain sensor positions
-        PVector f = phys.getSensorPos(0);
-        PVector l = phys.getSensorPos(-phys.sensorAngle);
-        PVector r = phys.getSensorPos(phys.sensorAngle);
+        phys.updateSensors();
 
         // Read pheromone intensity at these points
-        float vf = sim.pheromones.getWorld(f.x, f.y, homeChannel);
-        float vl = sim.pheromones.getWorld(l.x, l.y, homeChannel);
-        float vr = sim.pheromones.getWorld(r.x, r.y, homeChannel);
+        float vf = sim.pheromones.getWorld(phys.sensorFX, phys.sensorFY, homeChannel);
+        float vl = sim.pheromones.getWorld(phys.sensorLX, phys.sensorLY, homeChannel);
+        float vr = sim.pheromones.getWorld(phys.sensorRX, phys.sensorRY, homeChannel);
 
         // If no home trail is detected, use "GPS navigation" (cheat) to find the queen
         if (vf == 0 && vl == 0 && vr == 0)
@@ -217,9 +322,8 @@ public class Ant
                 queen = sim.queenLocB;
             }
 
-            PVector homing = PVector.sub(queen, phys.pos);
-            phys.applySteering(homing.normalize().mult(phys.maxSpeed));
-            phys.wander(); // Adds noise to avoid looking robotic
+            phys.seek(queen);
+            phys.wander(rng); // Adds noise to avoid looking robotic
             return;
         }
 
@@ -243,19 +347,17 @@ public class Ant
      * @param channelToFollow The channel to follow (Food or Home).
      * @return The suggested next state (SEARCHING or WANDERING if lost).
      */
-    private AntState followPheromones(PApplet p, AntColonySimulation sim, int channelToFollow)
+    private AntState followPheromones(AntColonySimulation sim, int channelToFollow)
     {
-        PVector f = phys.getSensorPos(0);
-        PVector l = phys.getSensorPos(-phys.sensorAngle);
-        PVector r = phys.getSensorPos(phys.sensorAngle);
+        phys.updateSensors();
 
-        float vf = sim.pheromones.getWorld(f.x, f.y, channelToFollow);
-        float vl = sim.pheromones.getWorld(l.x, l.y, channelToFollow);
-        float vr = sim.pheromones.getWorld(r.x, r.y, channelToFollow);
+        float vf = sim.pheromones.getWorld(phys.sensorFX, phys.sensorFY, channelToFollow);
+        float vl = sim.pheromones.getWorld(phys.sensorLX, phys.sensorLY, channelToFollow);
+        float vr = sim.pheromones.getWorld(phys.sensorRX, phys.sensorRY, channelToFollow);
 
         if (vf == 0 && vl == 0 && vr == 0)
         {
-            phys.wander();
+            phys.wander(rng);
             return AntState.WANDERING;
         }
         
@@ -276,7 +378,7 @@ public class Ant
         }
         else
         {
-            phys.wander();
+            phys.wander(rng);
             return AntState.WANDERING;
         }
     }
@@ -286,31 +388,14 @@ public class Ant
      * If so, moves towards the nearest one.
      * @return true if food was found and is being pursued.
      */
-    private boolean smellFood(PApplet p, AntColonySimulation sim)
+    private boolean smellFood(AntColonySimulation sim)
     {
-        PVector closest = null;
-        float recordDist = smellRadius;
-
-        // Iterates over all leaves to find the closest one
-        for (FallingLeaf leaf : sim.fallingLeaves)
-        {
-            // Ignores leaves still in the air (above the surface)
-            if (leaf.phys.posPx.y < sim.surfaceY)
-            {
-                continue;
-            }
-
-            float d = PVector.dist(phys.pos, leaf.phys.posPx);
-            if (d < recordDist)
-            {
-                recordDist = d;
-                closest = leaf.phys.posPx;
-            }
-        }
+        // Only the buckets overlapping the smell radius are visited
+        FallingLeaf closest = sim.leafGrid.findNearest(phys.pos.x, phys.pos.y, smellRadius);
 
         if (closest != null)
         {
-            phys.seek(closest);
+            phys.seek(closest.phys.posPx);
             return true;
         }
         
@@ -321,7 +406,7 @@ public class Ant
      * Manages physical interactions: picking up food, dropping food at the queen,
      * and depositing pheromones on the ground.
      */
-    private void interact(PApplet p, AntColonySimulation sim)
+    private void interact(AntColonySimulation sim)
     {
         PVector queen;
         if (colonyId == 0)
@@ -339,7 +424,14 @@ public class Ant
             if (hasFood)
             {
                 // If carrying food, leaves a "Food Found" trail
-                sim.pheromones.addWorld(phys.pos.x, phys.pos.y, foodChannel, 0.5f);
+                if (deposits == null)
+                {
+                    sim.pheromones.addWorld(phys.pos.x, phys.pos.y, foodChannel, 0.5f);
+                }
+                else
+                {
+                    deposits.add(sim.pheromones.cellIndex(phys.pos.x, phys.pos.y), foodChannel, 0.5f);
+                }
             }
             else
             {
@@ -348,7 +440,14 @@ public class Ant
                 float cur = sim.pheromones.getWorld(phys.pos.x, phys.pos.y, homeChannel);
                 if (pherStr > cur)
                 {
-                    sim.pheromones.setWorld(phys.pos.x, phys.pos.y, homeChannel, pherStr);
+                    if (deposits == null)
+                    {
+                        sim.pheromones.setWorld(phys.pos.x, phys.pos.y, homeChannel, pherStr);
+                    }
+                    else
+                    {
+                        deposits.max(sim.pheromones.cellIndex(phys.pos.x, phys.pos.y), homeChannel, pherStr);
+                    }
                 }
             }
         }
@@ -356,31 +455,24 @@ public class Ant
         // 2. Object Interaction
         if (!hasFood)
         {
-            // Try to pick up food
-            for (FallingLeaf l : sim.fallingLeaves)
+            // Try to pick up food (ground leaves within reach)
+            FallingLeaf l = sim.leafGrid.findAny(phys.pos.x, phys.pos.y, 15);
+
+            if (l != null)
             {
-                boolean onGround = l.phys.posPx.y >= sim.surfaceY;
-                boolean closeEnough = PVector.dist(phys.pos, l.phys.posPx) < 15;
-                
-                if (onGround && closeEnough)
+                hasFood = true;
+                nrg = maxNrg;   // Restores energy by eating a bit
+                phys.reverse(); // Turns 180 degrees to head back
+                pherStr = 1.0f; // Resets pheromone strength
+
+                // Shared state is updated now, or later by the deposit buffer
+                if (deposits == null)
                 {
-                    hasFood = true;
-                    l.amount -= 50; // Takes a piece of the leaf
-                    nrg = maxNrg;   // Restores energy by eating a bit
-                    phys.vel.rotate(PApplet.PI); // Turns 180 degrees to head back
-                    pherStr = 1.0f; // Resets pheromone strength
-                    
-                    // Record statistics
-                    if (colonyId == 0)
-                    {
-                        sim.statsA.registerFood();
-                    }
-                    else
-                    {
-                        sim.statsB.registerFood();
-                    }
-                    
-                    break; // Picked up, exit loop
+                    consumeLeaf(sim, l, colonyId);
+                }
+                else
+                {
+                    deposits.consumeLeaf(l, colonyId);
                 }
             }
         }
@@ -391,87 +483,56 @@ public class Ant
             {
                 hasFood = false;
                 pherStr = 1.0f;
-                phys.vel.rotate(PApplet.PI); // Turns 180 degrees to search again
+                phys.reverse(); // Turns 180 degrees to search again
                 
-                // Increase colony stock
-                if (colonyId == 0)
+                if (deposits == null)
                 {
-                    sim.foodStockA++;
+                    deliverFood(sim, colonyId);
                 }
                 else
                 {
-                    sim.foodStockB++;
+                    deposits.deliverFood(colonyId);
                 }
             }
         }
     }
 
     /**
-     * Draws the ant on the screen.
-     * @param p Reference to the PApplet.
+     * Takes a piece of a leaf and records the collection in the colony statistics.
+     * @param sim Reference to the simulation.
+     * @param l Leaf being eaten.
+     * @param colonyId Colony of the ant that picked it up.
      */
-    public void display(PApplet p)
+    public static void consumeLeaf(AntColonySimulation sim, FallingLeaf l, int colonyId)
     {
-        int colorNormal;
-        int colorCarry;
+        l.amount -= 50; // Takes a piece of the leaf
 
-        // Define colors based on the colony
+        // Record statistics
         if (colonyId == 0)
         {
-            colorNormal = p.color(30, 80, 200);   // Blue
-            colorCarry = p.color(100, 200, 255);  // Light Blue
+            sim.statsA.registerFood();
         }
         else
         {
-            colorNormal = p.color(200, 30, 30);   // Red
-            colorCarry = p.color(255, 150, 150);  // Light Red
-        }
-
-        // Configure fill based on state (carrying or empty)
-        if (hasFood)
-        {
-            p.stroke(colorNormal);
-            p.strokeWeight(1);
-            p.fill(colorCarry);
-        }
-        else
-        {
-            p.stroke(colorNormal);
-            p.strokeWeight(1);
-            p.fill(colorNormal);
+            sim.statsB.registerFood();
         }
+    }
 
-        // Draw body
-        p.circle(phys.pos.x, phys.pos.y, 5);
-        p.noStroke();
-        
-        // Draw Debug Text (State) above the ant
-        p.textAlign(PApplet.CENTER, PApplet.BOTTOM);
-        p.textSize(12);
-        
-        String s;
-        if (state == AntState.SEARCHING)
-        {
-            s = "S";
-        }
-        else if (state == AntState.RETURNING)
+    /**
+     * Adds one unit of food to a colony stock.
+     * @param sim Reference to the simulation.
+     * @param colonyId Colony receiving the food.
+     */
+    public static void deliverFood(AntColonySimulation sim, int colonyId)
+    {
+        // Increase colony stock
+        if (colonyId == 0)
         {
-            s = "R";
+            sim.foodStockA++;
         }
         else
         {
-            s = "W";
+            sim.foodStockB++;
         }
-
-        // Shadow effect on text for readability
-        p.fill(0);
-        p.text(s, phys.pos.x + 1, phys.pos.y - 7); 
-        
-        p.fill(255);
-        p.text(s, phys.pos.x, phys.pos.y - 8);
-        
-        // Restore default alignment
-        p.textAlign(PApplet.LEFT, PApplet.TOP);
-        p.noStroke();
     }
 }
\ No newline at end of file
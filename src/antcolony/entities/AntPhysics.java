@@ -1,5 +1,6 @@
 package antcolony.entities;
 
+import antcolony.data.SimRandom;
 import processing.core.PApplet;
 import processing.core.PVector;
 
@@ -49,26 +50,95 @@ public class AntPhysics
      */
     public float sensorAngle = PApplet.PI / 3;
 
+    // --- Sensor Positions (Filled by updateSensors) ---
+
+    /** Front sensor position. */
+    public float sensorFX;
+    public float sensorFY;
+
+    /** Left sensor position. */
+    public float sensorLX;
+    public float sensorLY;
+
+    /** Right sensor position. */
+    public float sensorRX;
+    public float sensorRY;
+
+    /** Cached sin/cos of the sensor angle (recomputed only if the angle changes). */
+    private float sensorCos;
+    private float sensorSin;
+    private float cachedSensorAngle = Float.NaN;
+
+    /**
+     * Fractions of the sensor angle used to turn towards a stronger trail
+     * (returning home and following pheromones, see {@link Ant}).
+     */
+    private static final float TURN_WIDE = 0.8f;
+    private static final float TURN_NARROW = 0.5f;
+
+    /**
+     * Magnitude of the random push added by {@link #wander(SimRandom)}.
+     */
+    static final float WANDER_STRENGTH = 0.2f;
+
+    /** Cached turn angles and their exact sin/cos (refreshed with the sensor angle). */
+    private float wideAngle;
+    private float wideCos;
+    private float wideSin;
+    private float narrowAngle;
+    private float narrowCos;
+    private float narrowSin;
+
     /**
      * Physics Constructor.
      * Initializes vectors and ensures the ant starts pointing upwards.
-     * @param p Reference to PApplet.
+     * @param rng Random stream of the ant.
+     * @param x Initial X position.
+     * @param y Initial Y position.
+     */
+    public AntPhysics(SimRandom rng, float x, float y)
+    {
+        this();
+        init(rng, x, y);
+    }
+
+    /**
+     * Empty Physics Constructor.
+     * Creates zeroed vectors, to be filled later (used by flyweight ants).
+     */
+    public AntPhysics()
+    {
+        this.pos = new PVector();
+        this.vel = new PVector();
+        this.acc = new PVector();
+    }
+
+    /**
+     * Reinitializes this component as if it had just been constructed.
+     * <p>
+     * Used to recycle the physics of a pooled ant: the vectors are
+     * overwritten in place and the random stream is consumed exactly as by
+     * {@link #AntPhysics(SimRandom, float, float)}.
+     * </p>
+     * @param rng Random stream of the ant.
      * @param x Initial X position.
      * @param y Initial Y position.
      */
-    public AntPhysics(PApplet p, float x, float y)
+    public void init(SimRandom rng, float x, float y)
     {
-        this.pos = new PVector(x, y);
-        this.vel = PVector.random2D();
+        float a = rng.random(PApplet.TWO_PI);
+
+        pos.set(x, y);
+        vel.set((float) Math.cos(a), (float) Math.sin(a));
         
         // Ensures initial velocity points upward (negative Y)
         // so they exit the nest towards the surface.
-        if (this.vel.y > 0)
+        if (vel.y > 0)
         {
-            this.vel.y *= -1;
+            vel.y *= -1;
         }
         
-        this.acc = new PVector(0, 0);
+        acc.set(0, 0);
     }
 
     /**
@@ -89,18 +159,44 @@ public class AntPhysics
     /**
      * Applies a steering force.
      * Reynolds formula: Steering = Desired - Velocity.
-     * @param desired The vector representing where the ant "wants" to go.
+     * @param desired The vector representing where the ant "wants" to go (not modified).
      */
     public void applySteering(PVector desired)
+    {
+        applySteering(desired.x, desired.y);
+    }
+
+    /**
+     * Applies a steering force from scalar components (allocation-free).
+     * Reynolds formula: Steering = Desired - Velocity.
+     * @param dx X component of the desired direction.
+     * @param dy Y component of the desired direction.
+     */
+    public void applySteering(float dx, float dy)
     {
         // Normalize and scale to maximum speed
-        desired.normalize().mult(maxSpeed);
-        
+        float m = (float) Math.sqrt(dx * dx + dy * dy);
+        if (m != 0)
+        {
+            dx = dx / m * maxSpeed;
+            dy = dy / m * maxSpeed;
+        }
+
         // Calculate the force needed to correct the trajectory
-        PVector steer = PVector.sub(desired, vel);
-        steer.limit(maxForce); // Limits maneuverability
-        
-        acc.add(steer);
+        float sx = dx - vel.x;
+        float sy = dy - vel.y;
+
+        // Limits maneuverability
+        float sMagSq = sx * sx + sy * sy;
+        if (sMagSq > maxForce * maxForce)
+        {
+            float k = maxForce / (float) Math.sqrt(sMagSq);
+            sx *= k;
+            sy *= k;
+        }
+
+        acc.x += sx;
+        acc.y += sy;
     }
 
     /**
@@ -108,16 +204,49 @@ public class AntPhysics
      */
     public void moveForward()
     {
-        applySteering(vel.copy());
+        applySteering(vel.x, vel.y);
     }
 
     /**
      * Applies a force to turn in a specific direction relative to the current one.
+     * <p>
+     * The ants only turn by &plusmn;0.8 and &plusmn;0.5 times the sensor
+     * angle; the exact sin/cos of those are cached with the sensor angle,
+     * so only other angles go through trigonometry.
+     * </p>
      * @param angle The angle in radians to rotate.
      */
     public void turn(float angle)
     {
-        applySteering(vel.copy().rotate(angle));
+        refreshSensorTrig();
+
+        float mag = Math.abs(angle);
+        float c;
+        float s;
+
+        if (mag == wideAngle)
+        {
+            c = wideCos;
+            s = wideSin;
+        }
+        else if (mag == narrowAngle)
+        {
+            c = narrowCos;
+            s = narrowSin;
+        }
+        else
+        {
+            c = (float) Math.cos(mag);
+            s = (float) Math.sin(mag);
+        }
+
+        // cos is even, sin is odd
+        if (angle < 0)
+        {
+            s = -s;
+        }
+
+        applySteering(vel.x * c - vel.y * s, vel.x * s + vel.y * c);
     }
 
     /**
@@ -126,47 +255,112 @@ public class AntPhysics
      */
     public void seek(PVector target)
     {
-        applySteering(PVector.sub(target, pos));
+        applySteering(target.x - pos.x, target.y - pos.y);
     }
 
     /**
      * Adds random movement (noise) to simulate natural behavior.
+     * @param rng Random stream of the ant.
+     */
+    public void wander(SimRandom rng)
+    {
+        // Same distribution as PVector.random2D(), without the allocation
+        // (rounded to the heading table when one is configured)
+        float a = rng.random(PApplet.TWO_PI);
+
+        acc.x += HeadingTable.ACTIVE.cos(a) * WANDER_STRENGTH;
+        acc.y += HeadingTable.ACTIVE.sin(a) * WANDER_STRENGTH;
+    }
+
+    /**
+     * Reverses the direction of movement (180 degree turn).
      */
-    public void wander()
+    public void reverse()
     {
-        acc.add(PVector.random2D().mult(0.2f));
+        vel.x = -vel.x;
+        vel.y = -vel.y;
     }
 
     /**
-     * Calculates the absolute position of a sensor (antenna).
-     * @param angle The sensor's angle relative to the ant's front (0 = front).
-     * @return The (x,y) position where the sensor is "smelling".
+     * Recomputes the positions of the three sensors (antennae).
+     * <p>
+     * The heading is normalized once and the lateral sensors are obtained by
+     * rotating it with the precomputed sin/cos of {@link #sensorAngle}, so no
+     * trigonometry and no objects are involved. Results are written to the
+     * {@code sensor*} fields.
+     * </p>
      */
-    public PVector getSensorPos(float angle)
+    public void updateSensors()
     {
-        // Takes the current direction, rotates by the sensor angle, 
-        // extends by the sensor distance, and adds to the current position.
-        return vel.copy().rotate(angle).normalize().mult(sensorDist).add(pos);
+        refreshSensorTrig();
+
+        // Unit heading scaled by the sensor distance
+        float hx = 0;
+        float hy = 0;
+        float m = (float) Math.sqrt(vel.x * vel.x + vel.y * vel.y);
+        if (m != 0)
+        {
+            hx = vel.x / m * sensorDist;
+            hy = vel.y / m * sensorDist;
+        }
+
+        // Front sensor
+        sensorFX = pos.x + hx;
+        sensorFY = pos.y + hy;
+
+        // Left sensor (rotated by -sensorAngle)
+        sensorLX = pos.x + hx * sensorCos + hy * sensorSin;
+        sensorLY = pos.y - hx * sensorSin + hy * sensorCos;
+
+        // Right sensor (rotated by +sensorAngle)
+        sensorRX = pos.x + hx * sensorCos - hy * sensorSin;
+        sensorRY = pos.y + hx * sensorSin + hy * sensorCos;
+    }
+
+    /**
+     * Recomputes the cached sin/cos of the sensor and turn angles if the
+     * sensor angle changed.
+     */
+    private void refreshSensorTrig()
+    {
+        if (sensorAngle == cachedSensorAngle)
+        {
+            return;
+        }
+
+        sensorCos = (float) Math.cos(sensorAngle);
+        sensorSin = (float) Math.sin(sensorAngle);
+
+        wideAngle = sensorAngle * TURN_WIDE;
+        wideCos = (float) Math.cos(wideAngle);
+        wideSin = (float) Math.sin(wideAngle);
+
+        narrowAngle = sensorAngle * TURN_NARROW;
+        narrowCos = (float) Math.cos(narrowAngle);
+        narrowSin = (float) Math.sin(narrowAngle);
+
+        cachedSensorAngle = sensorAngle;
     }
 
     /**
      * Keeps the ant within simulation boundaries.
      * Makes the ant "bounce" (invert velocity) if it hits the walls.
-     * @param p Reference to PApplet (for width/height).
+     * @param worldW World width in pixels.
+     * @param worldH World height in pixels.
      * @param leftW Left sidebar boundary.
      * @param rightW Right sidebar boundary.
      * @param surfaceY Top boundary (ground level).
      */
-    public void checkEdges(PApplet p, float leftW, float rightW, float surfaceY)
+    public void checkEdges(float worldW, float worldH, float leftW, float rightW, float surfaceY)
     {
         // Collision with side walls (Left / Right)
-        if (pos.x < leftW + 5 || pos.x > p.width - rightW - 5)
+        if (pos.x < leftW + 5 || pos.x > worldW - rightW - 5)
         {
             vel.x *= -1;
         }
 
         // Collision with screen bottom
-        if (pos.y > p.height - 5)
+        if (pos.y > worldH - 5)
         {
             vel.y *= -1;
         }
@@ -179,7 +373,7 @@ public class AntPhysics
         }
 
         // Ensures the ant does not get stuck outside boundaries
-        pos.x = PApplet.constrain(pos.x, leftW + 5, p.width - rightW - 5);
-        pos.y = PApplet.constrain(pos.y, surfaceY, p.height - 5);
+        pos.x = PApplet.constrain(pos.x, leftW + 5, worldW - rightW - 5);
+        pos.y = PApplet.constrain(pos.y, surfaceY, worldH - 5);
     }
 }
\ No newline at end of file
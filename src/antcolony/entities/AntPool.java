@@ -0,0 +1,392 @@
+package antcolony.entities;
+
+import java.util.Arrays;
+
+/**
+ * Structure-of-arrays storage for every living ant.
+ * <p>
+ * Instead of a list of {@link Ant} objects (each owning an {@link AntPhysics}
+ * and three {@code PVector}s scattered around the heap), the state of all ants
+ * is kept in parallel primitive arrays. Ant {@code i} is described by the
+ * {@code i}-th entry of every array, and only the first {@link #size()}
+ * entries are valid.
+ * </p>
+ * <p>
+ * Deaths use swap-remove (the last ant is moved into the freed slot), so the
+ * arrays always stay dense. The behaviour code in {@link Ant} is reused by
+ * loading an entry into a flyweight {@link Ant}, running it, and storing the
+ * result back (see {@link Ant#load} and {@link Ant#store}).
+ * </p>
+ * <p>
+ * The per-colony head counts are kept in {@link #population}, updated on
+ * every add, removal and {@link #update}.
+ * </p>
+ * <p>
+ * The pool is also the ant recycler: the slot of a dead ant is simply
+ * overwritten by the next birth, so once the arrays have grown to the peak
+ * population, births and deaths allocate nothing. {@link #slotReuses},
+ * {@link #slotFresh} and {@link #slotGrowths} measure how often that holds.
+ * </p>
+ */
+public class AntPool
+{
+    /**
+     * Initial capacity of the arrays (grown by doubling when needed).
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    // --- Physics ---
+
+    /** Position X. */
+    public float[] posX;
+
+    /** Position Y. */
+    public float[] posY;
+
+    /** Velocity X. */
+    public float[] velX;
+
+    /** Velocity Y. */
+    public float[] velY;
+
+    /** Acceleration X. */
+    public float[] accX;
+
+    /** Acceleration Y. */
+    public float[] accY;
+
+    // --- Life Cycle ---
+
+    /** Current energy. */
+    public float[] nrg;
+
+    /** Current age in ticks. */
+    public float[] age;
+
+    /** Lifespan in ticks. */
+    public float[] maxAge;
+
+    /** Strength of the pheromone trail being left. */
+    public float[] pherStr;
+
+    // --- Identity and State ---
+
+    /** Colony identifier (0 = Blue/A, 1 = Red/B). */
+    public int[] colonyId;
+
+    /** Whether the ant is carrying food. */
+    public boolean[] hasFood;
+
+    /** AI state, stored as the {@link Ant.AntState} ordinal. */
+    public byte[] state;
+
+    /** State of each ant's private random stream (see {@link antcolony.data.SimRandom}). */
+    public long[] rngState;
+
+    /**
+     * Number of living ants (valid entries).
+     */
+    private int size = 0;
+
+    /**
+     * Live, carrying and per-state counts of each colony.
+     */
+    public final PopulationRegistry population = new PopulationRegistry();
+
+    /**
+     * Number of slots that have ever held an ant (high-water mark of {@link #size}).
+     */
+    private int usedSlots = 0;
+
+    // --- Statistics ---
+
+    /**
+     * Number of ants added into a slot that previously held a dead ant.
+     */
+    public long slotReuses = 0;
+
+    /**
+     * Number of ants added into a slot never used before (growth included).
+     */
+    public long slotFresh = 0;
+
+    /**
+     * Number of ants whose addition had to grow the arrays.
+     */
+    public long slotGrowths = 0;
+
+    /**
+     * Ant Pool Constructor.
+     */
+    public AntPool()
+    {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Number of living ants.
+     * @return Count of valid entries.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Number of ants the arrays can hold without growing.
+     * @return Allocated slots.
+     */
+    public int capacity()
+    {
+        return posX.length;
+    }
+
+    /**
+     * Fraction of additions that recycled the slot of a dead ant.
+     * <p>
+     * The first fill of the pool (up to the peak population) counts as
+     * fresh slots, so the rate only rises once ants die and are replaced.
+     * </p>
+     * @return Hit rate between 0 and 1 (0 before the first addition).
+     */
+    public double getSlotHitRate()
+    {
+        long total = slotReuses + slotFresh;
+        return total == 0 ? 0 : (double) slotReuses / total;
+    }
+
+    /**
+     * Checks if the pool has no ants.
+     * @return true if empty.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes every ant (the arrays are kept for reuse).
+     */
+    public void clear()
+    {
+        size = 0;
+        population.clear();
+    }
+
+    /**
+     * Appends an ant, copying its full state into the arrays.
+     * @param a Ant to copy (the object itself is not retained).
+     * @return The index assigned to the new ant.
+     */
+    public int add(Ant a)
+    {
+        if (size == posX.length)
+        {
+            allocate(size * 2);
+            slotGrowths++;
+        }
+
+        if (size < usedSlots)
+        {
+            slotReuses++;
+        }
+        else
+        {
+            slotFresh++;
+            usedSlots = size + 1;
+        }
+
+        int i = size++;
+        a.store(this, i);
+        population.register(colonyId[i], hasFood[i], state[i]);
+        return i;
+    }
+
+    /**
+     * Writes an updated ant back and reports its cargo or state change.
+     * @param a Ant loaded from entry {@code i} and then updated.
+     * @param i Index of the ant.
+     * @param counts Registry receiving the change ({@link #population}, or a
+     *               delta merged later by the caller).
+     */
+    public void update(Ant a, int i, PopulationRegistry counts)
+    {
+        boolean hadFood = hasFood[i];
+        byte oldState = state[i];
+
+        a.store(this, i);
+
+        if (hadFood != hasFood[i] || oldState != state[i])
+        {
+            counts.change(colonyId[i], hadFood, oldState, hasFood[i], state[i]);
+        }
+    }
+
+    /**
+     * Sets the number of ants, growing the arrays if needed.
+     * <p>
+     * Entries beyond the previous size hold stale data and must be written
+     * by the caller (used when restoring a snapshot), who then calls
+     * {@link PopulationRegistry#recount}.
+     * </p>
+     * @param n New number of ants.
+     */
+    public void setSize(int n)
+    {
+        if (n > posX.length)
+        {
+            allocate(Math.max(n, posX.length * 2));
+        }
+
+        size = n;
+        usedSlots = Math.max(usedSlots, n);
+    }
+
+    /**
+     * Replaces the content of this pool with a copy of another pool.
+     * <p>
+     * One bulk copy per array; used to publish render snapshots.
+     * </p>
+     * @param src Pool to copy.
+     */
+    public void copyFrom(AntPool src)
+    {
+        int n = src.size;
+        setSize(n);
+
+        System.arraycopy(src.posX, 0, posX, 0, n);
+        System.arraycopy(src.posY, 0, posY, 0, n);
+        System.arraycopy(src.velX, 0, velX, 0, n);
+        System.arraycopy(src.velY, 0, velY, 0, n);
+        System.arraycopy(src.accX, 0, accX, 0, n);
+        System.arraycopy(src.accY, 0, accY, 0, n);
+
+        System.arraycopy(src.nrg, 0, nrg, 0, n);
+        System.arraycopy(src.age, 0, age, 0, n);
+        System.arraycopy(src.maxAge, 0, maxAge, 0, n);
+        System.arraycopy(src.pherStr, 0, pherStr, 0, n);
+
+        System.arraycopy(src.colonyId, 0, colonyId, 0, n);
+        System.arraycopy(src.hasFood, 0, hasFood, 0, n);
+        System.arraycopy(src.state, 0, state, 0, n);
+        System.arraycopy(src.rngState, 0, rngState, 0, n);
+
+        population.copyFrom(src.population);
+    }
+
+    /**
+     * Removes an ant by moving the last ant into its slot (swap-remove).
+     * <p>
+     * When iterating, the entry at {@code i} must be visited again
+     * afterwards, since it now holds the previously last ant.
+     * </p>
+     * @param i Index of the ant to remove.
+     */
+    public void removeAt(int i)
+    {
+        population.unregister(colonyId[i], hasFood[i], state[i]);
+
+        int last = --size;
+
+        if (i != last)
+        {
+            copy(last, i);
+        }
+    }
+
+    /**
+     * Removes every ant marked dead, in one sweep.
+     * <p>
+     * The sweep runs in descending order, so each swap-remove only moves a
+     * survivor (or an ant already visited) into the freed slot: the cost is
+     * one entry copy per death, whatever the number of deaths.
+     * </p>
+     * @param dead Death flags (index = ant index).
+     * @param n Number of flags to read (the size before the sweep).
+     * @param deaths Receives the number of deaths of each colony (added to).
+     * @return Total number of ants removed.
+     */
+    public int removeMarked(boolean[] dead, int n, int[] deaths)
+    {
+        int removed = 0;
+
+        for (int i = n - 1; i >= 0; i--)
+        {
+            if (dead[i])
+            {
+                deaths[colonyId[i]]++;
+                removeAt(i);
+                removed++;
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Copies every field of one entry into another.
+     */
+    private void copy(int from, int to)
+    {
+        posX[to] = posX[from];
+        posY[to] = posY[from];
+        velX[to] = velX[from];
+        velY[to] = velY[from];
+        accX[to] = accX[from];
+        accY[to] = accY[from];
+
+        nrg[to] = nrg[from];
+        age[to] = age[from];
+        maxAge[to] = maxAge[from];
+        pherStr[to] = pherStr[from];
+
+        colonyId[to] = colonyId[from];
+        hasFood[to] = hasFood[from];
+        state[to] = state[from];
+        rngState[to] = rngState[from];
+    }
+
+    /**
+     * (Re)allocates all arrays with the given capacity, keeping existing entries.
+     */
+    private void allocate(int capacity)
+    {
+        if (posX == null)
+        {
+            posX = new float[capacity];
+            posY = new float[capacity];
+            velX = new float[capacity];
+            velY = new float[capacity];
+            accX = new float[capacity];
+            accY = new float[capacity];
+
+            nrg = new float[capacity];
+            age = new float[capacity];
+            maxAge = new float[capacity];
+            pherStr = new float[capacity];
+
+            colonyId = new int[capacity];
+            hasFood = new boolean[capacity];
+            state = new byte[capacity];
+            rngState = new long[capacity];
+            return;
+        }
+
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        velX = Arrays.copyOf(velX, capacity);
+        velY = Arrays.copyOf(velY, capacity);
+        accX = Arrays.copyOf(accX, capacity);
+        accY = Arrays.copyOf(accY, capacity);
+
+        nrg = Arrays.copyOf(nrg, capacity);
+        age = Arrays.copyOf(age, capacity);
+        maxAge = Arrays.copyOf(maxAge, capacity);
+        pherStr = Arrays.copyOf(pherStr, capacity);
+
+        colonyId = Arrays.copyOf(colonyId, capacity);
+        hasFood = Arrays.copyOf(hasFood, capacity);
+        state = Arrays.copyOf(state, capacity);
+        rngState = Arrays.copyOf(rngState, capacity);
+    }
+}
\ No newline at end of file
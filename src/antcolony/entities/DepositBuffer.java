@@ -0,0 +1,162 @@
+package antcolony.entities;
+
+import antcolony.AntColonySimulation;
+import antcolony.environment.PheromoneField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Per-worker record of the writes ants make to shared simulation state.
+ * <p>
+ * During a parallel update, ants only read the pheromone field and the
+ * leaves. Their writes (pheromone deposits, leaf consumption and food
+ * deliveries) are appended here instead, and {@link #apply} replays them
+ * afterwards on a single thread. Buffers are applied in ant order, so the
+ * final state does not depend on the number of worker threads.
+ * </p>
+ */
+public class DepositBuffer
+{
+    /** Operation code: cumulative addition (food trail). */
+    private static final byte OP_ADD = 0;
+
+    /** Operation code: "max" write (home trail). */
+    private static final byte OP_MAX = 1;
+
+    // --- Pheromone Operations (parallel arrays) ---
+
+    private int[] cells = new int[64];
+    private byte[] channels = new byte[64];
+    private byte[] ops = new byte[64];
+    private float[] values = new float[64];
+    private int opCount = 0;
+
+    // --- Leaf and Food Events ---
+
+    private final ArrayList<FallingLeaf> leaves = new ArrayList<>();
+    private int[] leafColonies = new int[16];
+
+    /** Food units delivered to each queen (index = colony ID). */
+    private final int[] delivered = new int[2];
+
+    /**
+     * Records a cumulative deposit.
+     * @param cell Flat cell index (ignored if negative, i.e. out of bounds).
+     * @param channel Channel ID (0-3).
+     * @param delta Amount to add.
+     */
+    public void add(int cell, int channel, float delta)
+    {
+        push(cell, channel, OP_ADD, delta);
+    }
+
+    /**
+     * Records a "max" write.
+     * @param cell Flat cell index (ignored if negative, i.e. out of bounds).
+     * @param channel Channel ID (0-3).
+     * @param v Candidate intensity.
+     */
+    public void max(int cell, int channel, float v)
+    {
+        push(cell, channel, OP_MAX, v);
+    }
+
+    /**
+     * Records that an ant took a piece of a leaf.
+     * @param l Leaf being eaten.
+     * @param colonyId Colony of the ant.
+     */
+    public void consumeLeaf(FallingLeaf l, int colonyId)
+    {
+        int n = leaves.size();
+        if (n == leafColonies.length)
+        {
+            leafColonies = Arrays.copyOf(leafColonies, n * 2);
+        }
+
+        leaves.add(l);
+        leafColonies[n] = colonyId;
+    }
+
+    /**
+     * Records a food delivery at the queen.
+     * @param colonyId Colony receiving the food.
+     */
+    public void deliverFood(int colonyId)
+    {
+        delivered[colonyId]++;
+    }
+
+    /**
+     * Replays all recorded writes on the simulation and clears the buffer.
+     * @param sim Reference to the simulation.
+     */
+    public void apply(AntColonySimulation sim)
+    {
+        PheromoneField field = sim.pheromones;
+
+        for (int k = 0; k < opCount; k++)
+        {
+            if (ops[k] == OP_ADD)
+            {
+                field.addAt(cells[k], channels[k], values[k]);
+            }
+            else
+            {
+                field.maxAt(cells[k], channels[k], values[k]);
+            }
+        }
+
+        for (int k = 0; k < leaves.size(); k++)
+        {
+            Ant.consumeLeaf(sim, leaves.get(k), leafColonies[k]);
+        }
+
+        for (int c = 0; c < delivered.length; c++)
+        {
+            for (int k = 0; k < delivered[c]; k++)
+            {
+                Ant.deliverFood(sim, c);
+            }
+        }
+
+        clear();
+    }
+
+    /**
+     * Discards all recorded writes.
+     */
+    public void clear()
+    {
+        opCount = 0;
+        leaves.clear();
+        Arrays.fill(delivered, 0);
+    }
+
+    /**
+     * Appends a pheromone operation, growing the arrays when needed.
+     */
+    private void push(int cell, int channel, byte op, float v)
+    {
+        if (cell < 0)
+        {
+            return;
+        }
+
+        if (opCount == cells.length)
+        {
+            int n = opCount * 2;
+            cells = Arrays.copyOf(cells, n);
+            channels = Arrays.copyOf(channels, n);
+            ops = Arrays.copyOf(ops, n);
+            values = Arrays.copyOf(values, n);
+        }
+
+        cells[opCount] = cell;
+        channels[opCount] = (byte) channel;
+        ops[opCount] = op;
+        values[opCount] = v;
+        opCount++;
+    }
+}
\ No newline at end of file
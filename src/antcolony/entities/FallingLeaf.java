@@ -40,32 +40,76 @@ public class FallingLeaf
 
     /**
      * Leaf Constructor.
-     * @param p Reference to PApplet.
-     * @param sim Reference to the simulation (to access current colors).
+     * @param sim Reference to the simulation (current colors and random stream).
      * @param spawnPosPx Initial position in pixels.
      */
-    public FallingLeaf(PApplet p, AntColonySimulation sim, PVector spawnPosPx)
+    public FallingLeaf(AntColonySimulation sim, PVector spawnPosPx)
     {
-        this.phys = new LeafPhysics(p, spawnPosPx, PPM);
+        this.phys = new LeafPhysics(sim.random, spawnPosPx, PPM);
         this.amount = 250;
         // Gets the current seasonal color (defined in ColorScheme)
         this.col = sim.colors.cCurrentLeafGlobal;
     }
 
+    /**
+     * Reinitializes every field as for a freshly spawned leaf.
+     * <p>
+     * Used by {@link LeafPool} to recycle consumed leaves; the random stream
+     * is consumed exactly as by the constructor.
+     * </p>
+     * @param sim Reference to the simulation (current colors and random stream).
+     * @param spawnPosPx Initial position in pixels (copied).
+     */
+    public void init(AntColonySimulation sim, PVector spawnPosPx)
+    {
+        phys.init(sim.random, spawnPosPx);
+        amount = 250;
+        col = sim.colors.cCurrentLeafGlobal;
+    }
+
+    /**
+     * Restore Constructor (rebuilds a leaf saved in a snapshot).
+     * @param posPx Position in pixels.
+     * @param velPx Velocity in pixels per second.
+     * @param amount Remaining food.
+     * @param col Leaf color.
+     */
+    public FallingLeaf(PVector posPx, PVector velPx, float amount, int col)
+    {
+        this.phys = new LeafPhysics(posPx, velPx, PPM);
+        this.amount = amount;
+        this.col = col;
+    }
+
+    /**
+     * Reinitializes every field from saved values (snapshot restore).
+     * @param x Position X in pixels.
+     * @param y Position Y in pixels.
+     * @param vx Velocity X in pixels per second.
+     * @param vy Velocity Y in pixels per second.
+     * @param amount Remaining food.
+     * @param col Leaf color.
+     */
+    public void init(float x, float y, float vx, float vy, float amount, int col)
+    {
+        phys.init(x, y, vx, vy);
+        this.amount = amount;
+        this.col = col;
+    }
+
     /**
      * Updates the leaf's physics.
-     * @param p Reference to PApplet.
      * @param sim Reference to the simulation (for world boundaries).
      * @param dt Delta time for smooth movement.
      */
-    public void update(PApplet p, AntColonySimulation sim, float dt)
+    public void update(AntColonySimulation sim, float dt)
     {
         // Define lateral boundaries where the leaf can fall (between sidebars)
         // The '+ 6' and '- 6' serve as a safety margin
         float minX = sim.leftSidebarW + 6;
-        float maxX = p.width - sim.rightSidebarW - 6;
+        float maxX = sim.worldW - sim.rightSidebarW - 6;
 
-        phys.update(p, dt, sim.surfaceY, minX, maxX);
+        phys.update(dt, sim.surfaceY, minX, maxX);
     }
 
     /**
@@ -73,6 +117,19 @@ public class FallingLeaf
      * @param p Reference to PApplet.
      */
     public void display(PApplet p)
+    {
+        draw(p, phys.posPx.x, phys.posPx.y, amount, col);
+    }
+
+    /**
+     * Draws a leaf from its raw values (also used for render snapshots).
+     * @param p PApplet reference.
+     * @param x Position X (pixels).
+     * @param y Position Y (pixels).
+     * @param amount Remaining food.
+     * @param col Leaf colour.
+     */
+    public static void draw(PApplet p, float x, float y, float amount, int col)
     {
         p.noStroke();
         p.fill(col);
@@ -80,9 +137,6 @@ public class FallingLeaf
         // Calculates the visual size based on the amount of food remaining.
         // If amount is 250, size is 14. If it is 0, size is 6.
         float s = PApplet.map(amount, 0, 250, 6, 14);
-        
-        float x = phys.posPx.x;
-        float y = phys.posPx.y;
 
         // Draws the leaf shape (two overlapping ellipses to provide texture)
         // Main body
@@ -0,0 +1,236 @@
+package antcolony.entities;
+
+import antcolony.data.AntColonyConfig;
+import processing.core.PApplet;
+
+/**
+ * Quantized cosine/sine lookup for ant headings.
+ * <p>
+ * Wandering draws a random heading, which used to cost a {@code Math.cos}
+ * and a {@code Math.sin} for every wandering ant on every tick. With a
+ * table, the angle is rounded to one of {@link #getSteps()} evenly spaced
+ * headings and its cosine and sine are two array reads. (Turning only uses
+ * a few fixed angles, whose exact values {@link AntPhysics} caches.)
+ * </p>
+ * <p>
+ * The resolution comes from {@link AntColonyConfig#HEADING_TABLE_STEPS} and
+ * can be overridden at launch with {@code -Dantcolony.headingSteps=N}. It
+ * must be a power of two so that any angle, negative or beyond a full turn,
+ * wraps with a mask. 0 disables the table (exact trigonometry, the
+ * reference behaviour). Quantizing changes the trajectories, so runs with
+ * different resolutions do not produce the same state hash;
+ * {@link #accuracyReport(int)} measures the error against exact
+ * trigonometry.
+ * </p>
+ */
+public final class HeadingTable
+{
+    /**
+     * System property overriding the resolution.
+     */
+    public static final String PROPERTY = "antcolony.headingSteps";
+
+    /**
+     * Table used by the ant physics, selected once when the class is loaded.
+     */
+    public static final HeadingTable ACTIVE = new HeadingTable(select());
+
+    /**
+     * Number of headings in a full turn (0 = exact trigonometry).
+     */
+    private final int steps;
+
+    /**
+     * {@code steps - 1}, wraps an index into the table.
+     */
+    private final int mask;
+
+    /**
+     * Converts radians to table steps.
+     */
+    private final float stepsPerRadian;
+
+    /**
+     * Cosine of each heading.
+     */
+    private final float[] cos;
+
+    /**
+     * Sine of each heading.
+     */
+    private final float[] sin;
+
+    /**
+     * Heading Table Constructor.
+     * @param steps Number of headings in a full turn: a power of two, or 0 for exact trigonometry.
+     * @throws IllegalArgumentException If steps is neither 0 nor a power of two.
+     */
+    public HeadingTable(int steps)
+    {
+        if (!isValidSteps(steps))
+        {
+            throw new IllegalArgumentException("Heading steps must be 0 or a power of two: " + steps);
+        }
+
+        this.steps = steps;
+        this.mask = steps - 1;
+        this.stepsPerRadian = steps / PApplet.TWO_PI;
+        this.cos = new float[steps];
+        this.sin = new float[steps];
+
+        for (int k = 0; k < steps; k++)
+        {
+            double a = 2 * Math.PI * k / steps;
+            cos[k] = (float) Math.cos(a);
+            sin[k] = (float) Math.sin(a);
+        }
+    }
+
+    /**
+     * Number of headings in a full turn.
+     * @return Resolution (0 when the table is disabled).
+     */
+    public int getSteps()
+    {
+        return steps;
+    }
+
+    /**
+     * Rounds an angle to the nearest heading.
+     * @param angle Angle in radians (any range).
+     * @return Table index.
+     */
+    public int index(float angle)
+    {
+        return Math.round(angle * stepsPerRadian) & mask;
+    }
+
+    /**
+     * Cosine of an angle, rounded to the nearest heading.
+     * @param angle Angle in radians.
+     * @return Approximate cosine (exact when the table is disabled).
+     */
+    public float cos(float angle)
+    {
+        if (steps == 0)
+        {
+            return (float) Math.cos(angle);
+        }
+
+        return cos[index(angle)];
+    }
+
+    /**
+     * Sine of an angle, rounded to the nearest heading.
+     * @param angle Angle in radians.
+     * @return Approximate sine (exact when the table is disabled).
+     */
+    public float sin(float angle)
+    {
+        if (steps == 0)
+        {
+            return (float) Math.sin(angle);
+        }
+
+        return sin[index(angle)];
+    }
+
+    /**
+     * Measures the error of a table against exact trigonometry.
+     * <p>
+     * Sweeps a full turn finely and reports the worst and RMS errors of the
+     * cosine and sine, and the error of the wander push that the table
+     * actually serves (see {@link AntPhysics#wander}): the angle between
+     * the drawn and the applied direction, and the length of the
+     * difference between the exact and the applied push.
+     * </p>
+     * @param steps Resolution to measure (a power of two).
+     * @return Multi-line report.
+     */
+    public static String accuracyReport(int steps)
+    {
+        HeadingTable table = new HeadingTable(steps);
+        int samples = Math.max(steps, 1) * 64;
+
+        double maxCos = 0;
+        double maxSin = 0;
+        double sumSq = 0;
+        double maxDirection = 0;
+        double maxPush = 0;
+
+        for (int k = 0; k < samples; k++)
+        {
+            float a = (float) (2 * Math.PI * k / samples);
+
+            double dc = Math.abs(table.cos(a) - Math.cos(a));
+            double ds = Math.abs(table.sin(a) - Math.sin(a));
+
+            maxCos = Math.max(maxCos, dc);
+            maxSin = Math.max(maxSin, ds);
+            sumSq += dc * dc + ds * ds;
+            // Wrapped difference between the drawn and the applied direction
+            double applied = Math.atan2(table.sin(a), table.cos(a));
+            double direction = Math.abs(Math.IEEEremainder(applied - a, 2 * Math.PI));
+
+            maxDirection = Math.max(maxDirection, direction);
+            maxPush = Math.max(maxPush, AntPhysics.WANDER_STRENGTH * Math.sqrt(dc * dc + ds * ds));
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Heading table: %d steps (%d bytes)%n", steps, steps * 8));
+        sb.append(String.format("  cos error: max %.2e | sin error: max %.2e | RMS %.2e%n",
+                maxCos, maxSin, Math.sqrt(sumSq / (2.0 * samples))));
+        sb.append(String.format("  wander direction error: max %.4f rad (%.3f deg)%n",
+                maxDirection, Math.toDegrees(maxDirection)));
+        sb.append(String.format("  wander push error: max %.2e (push %.2f per tick)%n",
+                maxPush, AntPhysics.WANDER_STRENGTH));
+        return sb.toString();
+    }
+
+    /**
+     * Checks whether a resolution is accepted by the constructor.
+     * @param steps Number of headings in a full turn.
+     * @return true for 0 and for powers of two.
+     */
+    public static boolean isValidSteps(int steps)
+    {
+        return steps >= 0 && (steps & (steps - 1)) == 0;
+    }
+
+    /**
+     * Reads the configured resolution, then the launch override.
+     * <p>
+     * This runs while the class is loaded, where an exception would only
+     * surface as an {@code ExceptionInInitializerError} on the first ant
+     * update. An override that is not a number, or not 0 or a power of
+     * two, is reported and replaced by 0 (exact trigonometry).
+     * </p>
+     */
+    private static int select()
+    {
+        String property = System.getProperty(PROPERTY);
+
+        if (property == null)
+        {
+            return AntColonyConfig.HEADING_TABLE_STEPS;
+        }
+
+        try
+        {
+            int steps = Integer.parseInt(property.trim());
+
+            if (isValidSteps(steps))
+            {
+                return steps;
+            }
+        }
+        catch (NumberFormatException e)
+        {
+            // Reported below
+        }
+
+        System.err.println("Ignoring -D" + PROPERTY + "=" + property
+                           + ": expected 0 or a power of two, using exact trigonometry");
+        return 0;
+    }
+}
\ No newline at end of file
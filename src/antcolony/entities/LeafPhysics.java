@@ -1,6 +1,6 @@
 package antcolony.entities;
 
-import processing.core.PApplet;
+import antcolony.data.SimRandom;
 import processing.core.PVector;
 
 /**
@@ -79,21 +79,28 @@ public class LeafPhysics
 
     /**
      * Leaf Physics Constructor.
-     * @param p Reference to PApplet.
+     * @param rng Random stream (initial velocity).
      * @param startPosPx Initial position in pixels.
      * @param pixelsPerMeter Conversion scale (e.g., 100px = 1m).
      */
-    public LeafPhysics(PApplet p, PVector startPosPx, float pixelsPerMeter)
+    public LeafPhysics(SimRandom rng, PVector startPosPx, float pixelsPerMeter)
+    {
+        this(startPosPx, new PVector(), pixelsPerMeter);
+        init(rng, startPosPx);
+    }
+
+    /**
+     * Leaf Physics Constructor with a known velocity (e.g. restored from a snapshot).
+     * @param startPosPx Initial position in pixels.
+     * @param startVelPx Initial velocity in pixels per second.
+     * @param pixelsPerMeter Conversion scale (e.g., 100px = 1m).
+     */
+    public LeafPhysics(PVector startPosPx, PVector startVelPx, float pixelsPerMeter)
     {
         this.PPM = pixelsPerMeter;
 
         this.posPx = startPosPx.copy();
-        
-        // Random initial velocity to provide variety to the fall
-        this.velPx = new PVector(
-            p.random(-15f, 15f), // px/s
-            p.random(0f, 30f)    // px/s
-        );
+        this.velPx = startVelPx.copy();
         
         this.accPx = new PVector(0, 0);
 
@@ -106,15 +113,50 @@ public class LeafPhysics
         this.windMs = new PVector(0.6f, 0.0f);
     }
 
+    /**
+     * Reinitializes this component with a random initial velocity.
+     * <p>
+     * Used to recycle the physics of a pooled leaf: the vectors are
+     * overwritten in place and the random stream is consumed exactly as by
+     * {@link #LeafPhysics(SimRandom, PVector, float)}.
+     * </p>
+     * @param rng Random stream (initial velocity).
+     * @param startPosPx Initial position in pixels (copied).
+     */
+    public void init(SimRandom rng, PVector startPosPx)
+    {
+        // Random initial velocity to provide variety to the fall
+        float vx = rng.random(-15f, 15f); // px/s
+        float vy = rng.random(0f, 30f);   // px/s
+
+        init(startPosPx.x, startPosPx.y, vx, vy);
+    }
+
+    /**
+     * Reinitializes this component with a known position and velocity.
+     * @param x Position X in pixels.
+     * @param y Position Y in pixels.
+     * @param vx Velocity X in pixels per second.
+     * @param vy Velocity Y in pixels per second.
+     */
+    public void init(float x, float y, float vx, float vy)
+    {
+        posPx.set(x, y);
+        velPx.set(vx, vy);
+        accPx.set(0, 0);
+
+        // Gentle initial wind to the right (0.6 m/s)
+        windMs.set(0.6f, 0.0f);
+    }
+
     /**
      * Updates the physical simulation for a time step (dt).
-     * @param p Reference to PApplet.
      * @param dt Delta time (time elapsed since the last frame in seconds).
      * @param groundYpx Y position of the ground in pixels.
      * @param minXpx Left boundary in pixels.
      * @param maxXpx Right boundary in pixels.
      */
-    public void update(PApplet p, float dt, float groundYpx, float minXpx, float maxXpx)
+    public void update(float dt, float groundYpx, float minXpx, float maxXpx)
     {
         // Safety against invalid delta times
         if (dt <= 0)
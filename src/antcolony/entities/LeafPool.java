@@ -0,0 +1,156 @@
+package antcolony.entities;
+
+import antcolony.AntColonySimulation;
+import processing.core.PVector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Free list of recycled {@link FallingLeaf} objects.
+ * <p>
+ * Leaves are spawned continuously during autumn and dropped as soon as the
+ * ants have eaten them, each one owning a {@link LeafPhysics} and four
+ * {@code PVector}s. Consumed leaves are handed back here instead, and the
+ * next spawn reinitializes one of them in place (see
+ * {@link FallingLeaf#init(AntColonySimulation, PVector)}). Once the free list
+ * has grown to the steady-state turnover, spawning allocates nothing.
+ * </p>
+ * <p>
+ * The free list is capped, so a burst of leaves does not pin its memory
+ * forever: leaves released beyond the cap are left to the garbage collector.
+ * </p>
+ */
+public class LeafPool
+{
+    /**
+     * Recycled leaves, ready to be reinitialized.
+     */
+    private final ArrayList<FallingLeaf> free = new ArrayList<>();
+
+    /**
+     * Largest number of leaves kept in the free list.
+     */
+    private final int maxFree;
+
+    // --- Statistics ---
+
+    /**
+     * Number of leaves served from the free list.
+     */
+    public long hits = 0;
+
+    /**
+     * Number of leaves that had to be allocated (free list empty).
+     */
+    public long misses = 0;
+
+    /**
+     * Number of released leaves dropped because the free list was full.
+     */
+    public long discarded = 0;
+
+    /**
+     * Leaf Pool Constructor.
+     * @param maxFree Largest number of leaves kept for reuse.
+     */
+    public LeafPool(int maxFree)
+    {
+        this.maxFree = maxFree;
+    }
+
+    /**
+     * Returns a freshly spawned leaf, recycled if possible.
+     * @param sim Reference to the simulation (current colors and random stream).
+     * @param spawnPosPx Initial position in pixels (copied).
+     * @return Leaf ready to be added to the world.
+     */
+    public FallingLeaf obtain(AntColonySimulation sim, PVector spawnPosPx)
+    {
+        if (free.isEmpty())
+        {
+            misses++;
+            return new FallingLeaf(sim, spawnPosPx);
+        }
+
+        hits++;
+        FallingLeaf l = free.remove(free.size() - 1);
+        l.init(sim, spawnPosPx);
+        return l;
+    }
+
+    /**
+     * Returns a leaf holding saved values (snapshot restore), recycled if possible.
+     * @param x Position X in pixels.
+     * @param y Position Y in pixels.
+     * @param vx Velocity X in pixels per second.
+     * @param vy Velocity Y in pixels per second.
+     * @param amount Remaining food.
+     * @param col Leaf color.
+     * @return Restored leaf.
+     */
+    public FallingLeaf obtain(float x, float y, float vx, float vy, float amount, int col)
+    {
+        if (free.isEmpty())
+        {
+            misses++;
+            return new FallingLeaf(new PVector(x, y), new PVector(vx, vy), amount, col);
+        }
+
+        hits++;
+        FallingLeaf l = free.remove(free.size() - 1);
+        l.init(x, y, vx, vy, amount, col);
+        return l;
+    }
+
+    /**
+     * Hands a leaf back for reuse.
+     * <p>
+     * The caller must no longer reference it: it may be reinitialized by the
+     * next spawn.
+     * </p>
+     * @param l Leaf removed from the world.
+     */
+    public void release(FallingLeaf l)
+    {
+        if (free.size() < maxFree)
+        {
+            free.add(l);
+        }
+        else
+        {
+            discarded++;
+        }
+    }
+
+    /**
+     * Hands back every leaf of a list (the list itself is left untouched).
+     * @param leaves Leaves removed from the world.
+     */
+    public void releaseAll(List<FallingLeaf> leaves)
+    {
+        for (int k = 0; k < leaves.size(); k++)
+        {
+            release(leaves.get(k));
+        }
+    }
+
+    /**
+     * Number of leaves currently waiting for reuse.
+     * @return Size of the free list.
+     */
+    public int getFreeCount()
+    {
+        return free.size();
+    }
+
+    /**
+     * Fraction of requests served without allocating.
+     * @return Hit rate between 0 and 1 (0 before the first request).
+     */
+    public double getHitRate()
+    {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,193 @@
+package antcolony.entities;
+
+import antcolony.AntColonySimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs the ant AI of an {@link AntPool} on a fork-join pool.
+ * <p>
+ * The pool is cut into fixed-size chunks of consecutive ants. Each chunk owns
+ * a flyweight {@link Ant}, a {@link DepositBuffer} and a population delta
+ * (see {@link PopulationRegistry}): during the pass, ants
+ * sense the pheromone field as it was at the start of the pass (nothing
+ * writes to it), and every write to shared state goes to the chunk's buffer.
+ * </p>
+ * <p>
+ * Afterwards the buffers and deltas are applied in chunk order (which is ant
+ * order) and dead ants are removed, both on the calling thread. The outcome is therefore
+ * deterministic and independent of the number of threads.
+ * </p>
+ */
+public class ParallelAntUpdater
+{
+    /**
+     * Number of consecutive ants processed by a single task.
+     */
+    private static final int CHUNK_SIZE = 256;
+
+    /**
+     * Worker pool running the chunks.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Per-chunk flyweights (reused across ticks).
+     */
+    private final ArrayList<Ant> views = new ArrayList<>();
+
+    /**
+     * Per-chunk changes of cargo and state (merged into the pool's registry).
+     */
+    private final ArrayList<PopulationRegistry> deltas = new ArrayList<>();
+
+    /**
+     * Death flags of the current pass (index = ant index).
+     */
+    private boolean[] dead = new boolean[0];
+
+    /**
+     * Deaths of each colony during the current pass.
+     */
+    private final int[] deaths = new int[PopulationRegistry.COLONIES];
+
+    /**
+     * Parallel Updater Constructor.
+     * @param threads Number of worker threads.
+     */
+    public ParallelAntUpdater(int threads)
+    {
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Advances every ant by one tick.
+     * @param sim Reference to the simulation.
+     */
+    public void update(AntColonySimulation sim)
+    {
+        AntPool ants = sim.ants;
+        int n = ants.size();
+        int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        while (views.size() < chunks)
+        {
+            Ant view = new Ant();
+            view.deposits = new DepositBuffer();
+            views.add(view);
+            deltas.add(new PopulationRegistry());
+        }
+
+        if (dead.length < n)
+        {
+            dead = new boolean[Math.max(n, dead.length * 2)];
+        }
+        Arrays.fill(dead, 0, n, false);
+
+        // 1. Parallel pass: read-only sensing, buffered writes
+        if (chunks > 0)
+        {
+            pool.invoke(new ChunkTask(sim, 0, chunks));
+        }
+
+        // 2. Deterministic reduction, in ant order
+        for (int c = 0; c < chunks; c++)
+        {
+            views.get(c).deposits.apply(sim);
+
+            PopulationRegistry delta = deltas.get(c);
+            ants.population.add(delta);
+            delta.clear();
+        }
+
+        // 3. Remove dead ants in one sweep and record them in bulk
+        deaths[0] = 0;
+        deaths[1] = 0;
+
+        if (ants.removeMarked(dead, n, deaths) > 0)
+        {
+            sim.statsA.registerDeaths(deaths[0]);
+            sim.statsB.registerDeaths(deaths[1]);
+        }
+    }
+
+    /**
+     * Number of worker threads.
+     * @return Pool parallelism.
+     */
+    public int getParallelism()
+    {
+        return pool.getParallelism();
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    public void shutdown()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Updates the ants of one chunk with the chunk's own flyweight.
+     */
+    private void runChunk(AntColonySimulation sim, int chunk)
+    {
+        AntPool ants = sim.ants;
+        Ant a = views.get(chunk);
+        PopulationRegistry delta = deltas.get(chunk);
+
+        int start = chunk * CHUNK_SIZE;
+        int end = Math.min(start + CHUNK_SIZE, ants.size());
+
+        for (int i = start; i < end; i++)
+        {
+            a.load(ants, i);
+            a.run(sim);
+
+            if (a.isDead())
+            {
+                dead[i] = true;
+            }
+            else
+            {
+                ants.update(a, i, delta);
+            }
+        }
+    }
+
+    /**
+     * Fork-join task splitting a range of chunks in half until one is left.
+     */
+    private class ChunkTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final AntColonySimulation sim;
+        private final int c0;
+        private final int c1;
+
+        ChunkTask(AntColonySimulation sim, int c0, int c1)
+        {
+            this.sim = sim;
+            this.c0 = c0;
+            this.c1 = c1;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (c1 - c0 == 1)
+            {
+                runChunk(sim, c0);
+                return;
+            }
+
+            int mid = (c0 + c1) >>> 1;
+            invokeAll(new ChunkTask(sim, c0, mid), new ChunkTask(sim, mid, c1));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,210 @@
+package antcolony.entities;
+
+/**
+ * Per-colony head counts of an {@link AntPool}, kept up to date incrementally.
+ * <p>
+ * Counting the ants of a colony used to be a full pass over the pool, done
+ * on every physics sub-step and again by the statistics sidebar. The
+ * registry instead tracks, for each colony, the number of living ants, of
+ * ants carrying food and of ants in each {@link Ant.AntState}:
+ * </p>
+ * <ul>
+ *     <li>the pool registers an ant when it is added and unregisters it
+ *     when it is removed;</li>
+ *     <li>the ant updaters report state and cargo changes when they store an
+ *     ant back (see {@link AntPool#update}).</li>
+ * </ul>
+ * <p>
+ * All reads are O(1). A registry may also hold a delta (negative counts),
+ * which is how the parallel updater collects the changes of each chunk
+ * before merging them in order.
+ * </p>
+ */
+public class PopulationRegistry
+{
+    /**
+     * Number of colonies tracked.
+     */
+    public static final int COLONIES = 2;
+
+    /**
+     * Number of AI states tracked.
+     */
+    public static final int STATES = Ant.AntState.values().length;
+
+    /** Living ants per colony. */
+    private final int[] live = new int[COLONIES];
+
+    /** Ants carrying food per colony. */
+    private final int[] carrying = new int[COLONIES];
+
+    /** Ants per colony and state ({@code colony * STATES + state}). */
+    private final int[] states = new int[COLONIES * STATES];
+
+    /**
+     * Resets every count to zero.
+     */
+    public void clear()
+    {
+        for (int c = 0; c < COLONIES; c++)
+        {
+            live[c] = 0;
+            carrying[c] = 0;
+        }
+
+        for (int k = 0; k < states.length; k++)
+        {
+            states[k] = 0;
+        }
+    }
+
+    /**
+     * Counts a new ant.
+     * @param colony Colony ID.
+     * @param hasFood Whether it carries food.
+     * @param state State ordinal.
+     */
+    public void register(int colony, boolean hasFood, int state)
+    {
+        live[colony]++;
+        states[colony * STATES + state]++;
+
+        if (hasFood)
+        {
+            carrying[colony]++;
+        }
+    }
+
+    /**
+     * Removes an ant from the counts.
+     * @param colony Colony ID.
+     * @param hasFood Whether it carried food.
+     * @param state State ordinal.
+     */
+    public void unregister(int colony, boolean hasFood, int state)
+    {
+        live[colony]--;
+        states[colony * STATES + state]--;
+
+        if (hasFood)
+        {
+            carrying[colony]--;
+        }
+    }
+
+    /**
+     * Records a change of cargo and/or state of a living ant.
+     * @param colony Colony ID.
+     * @param hadFood Previous cargo.
+     * @param oldState Previous state ordinal.
+     * @param hasFood New cargo.
+     * @param newState New state ordinal.
+     */
+    public void change(int colony, boolean hadFood, int oldState, boolean hasFood, int newState)
+    {
+        states[colony * STATES + oldState]--;
+        states[colony * STATES + newState]++;
+
+        if (hadFood != hasFood)
+        {
+            if (hasFood)
+            {
+                carrying[colony]++;
+            }
+            else
+            {
+                carrying[colony]--;
+            }
+        }
+    }
+
+    /**
+     * Adds the counts of another registry (typically a delta) to this one.
+     * @param delta Counts to add.
+     */
+    public void add(PopulationRegistry delta)
+    {
+        for (int c = 0; c < COLONIES; c++)
+        {
+            live[c] += delta.live[c];
+            carrying[c] += delta.carrying[c];
+        }
+
+        for (int k = 0; k < states.length; k++)
+        {
+            states[k] += delta.states[k];
+        }
+    }
+
+    /**
+     * Replaces the counts with those of another registry.
+     * @param src Registry to copy.
+     */
+    public void copyFrom(PopulationRegistry src)
+    {
+        System.arraycopy(src.live, 0, live, 0, COLONIES);
+        System.arraycopy(src.carrying, 0, carrying, 0, COLONIES);
+        System.arraycopy(src.states, 0, states, 0, states.length);
+    }
+
+    /**
+     * Recomputes every count with one pass over a pool (after a bulk restore).
+     * @param pool Pool to count.
+     */
+    public void recount(AntPool pool)
+    {
+        clear();
+
+        for (int i = 0; i < pool.size(); i++)
+        {
+            register(pool.colonyId[i], pool.hasFood[i], pool.state[i]);
+        }
+    }
+
+    /**
+     * Number of living ants of a colony.
+     * @param colony Colony ID (0 or 1).
+     * @return Population.
+     */
+    public int getLive(int colony)
+    {
+        return live[colony];
+    }
+
+    /**
+     * Number of ants of a colony carrying food.
+     * @param colony Colony ID (0 or 1).
+     * @return Carrying ants.
+     */
+    public int getCarrying(int colony)
+    {
+        return carrying[colony];
+    }
+
+    /**
+     * Number of ants of a colony in a given state.
+     * @param colony Colony ID (0 or 1).
+     * @param state AI state.
+     * @return Ants in that state.
+     */
+    public int getInState(int colony, Ant.AntState state)
+    {
+        return states[colony * STATES + state.ordinal()];
+    }
+
+    /**
+     * Number of living ants of both colonies.
+     * @return Total population.
+     */
+    public int getTotal()
+    {
+        int n = 0;
+
+        for (int c = 0; c < COLONIES; c++)
+        {
+            n += live[c];
+        }
+
+        return n;
+    }
+}
\ No newline at end of file
@@ -1,8 +1,11 @@
 package antcolony.entities;
 
+import antcolony.data.SimRandom;
 import antcolony.environment.FractalGenerator;
 import processing.core.PApplet;
+import processing.core.PConstants;
 import processing.core.PGraphics;
+import processing.core.PImage;
 import processing.core.PVector;
 import java.util.ArrayList;
 
@@ -13,6 +16,13 @@ import java.util.ArrayList;
  * 1. An underground root system (procedurally generated via Fractals/Julia Set).
  * 2. The trunk and canopy (recursively generated).
  * </p>
+ * <p>
+ * The trunk and the leaves never move, so they are rendered once into
+ * cached layers covering the tree's bounding box: the trunk as a finished
+ * image, the leaves as an alpha mask. The coloured leaf layer is rebuilt
+ * from the mask only when the leaf colour (season) changes, and each frame
+ * draws the tree with two {@code image()} calls.
+ * </p>
  */
 public class StaticTree
 {
@@ -39,9 +49,51 @@ public class StaticTree
 
     /**
      * Root texture generated by the FractalGenerator.
+     * <p>
+     * Created on the first {@link #display} call, so trees built by a
+     * headless simulation never allocate graphics.
+     * </p>
      */
     public PGraphics rootTexture;
 
+    // --- Cached Layers (Created on the first display call) ---
+
+    /**
+     * Trunk and branches, drawn once.
+     */
+    private PImage trunkLayer;
+
+    /**
+     * Leaf shapes in white; only the alpha channel is used.
+     */
+    private PImage leafMask;
+
+    /**
+     * Leaves in the current colour (the mask recoloured).
+     */
+    private PImage leafLayer;
+
+    /**
+     * Leaf spacing the mask was drawn with (0 = not drawn yet).
+     */
+    private int leafMaskSkip = 0;
+
+    /**
+     * Colour the leaf layer was built with.
+     */
+    private int leafLayerColor;
+
+    /**
+     * Top-left corner of the layers (pixels).
+     */
+    private int layerX;
+    private int layerY;
+
+    /**
+     * Number of times the leaf layer was recoloured.
+     */
+    public int leafRecolors = 0;
+
     /**
      * Current growth factor of the roots (0.0 to 1.0).
      * Used to animate roots growing at the start.
@@ -53,31 +105,33 @@ public class StaticTree
      */
     private static final float GROWTH_RATE = 0.001f;
 
+    /**
+     * Random stream reserved for the (lazily created) root texture.
+     */
+    private final SimRandom textureRandom;
+
     /**
      * Static Tree Constructor.
-     * @param p Reference to PApplet.
+     * @param rng Random stream used for the generation.
      * @param x X position.
      * @param y Y position (Ground level).
      * @param s Size/Scale.
      */
-    public StaticTree(PApplet p, float x, float y, float s)
+    public StaticTree(SimRandom rng, float x, float y, float s)
     {
         this.root = new PVector(x, y);
         this.size = s;
-        this.colorOffset = p.random(-0.05f, 0.05f);
+        this.colorOffset = rng.random(-0.05f, 0.05f);
         
         // Starts with a partial size to avoid appearing instantly
-        this.rootGrowth = p.random(0.25f, 0.45f);
+        this.rootGrowth = rng.random(0.25f, 0.45f);
 
         // Generates the branch and leaf structure (Recursive)
         // -PI/2 points upwards (90 degrees)
-        generate(p, root.x, root.y, size, -PApplet.PI / 2, 0);
+        generate(rng, root.x, root.y, size, -PApplet.PI / 2, 0);
 
-        // Generates the root texture using the external FractalGenerator
-        int w = (int) (size * 2.5f);
-        int h = (int) (size * 1.5f);
-        
-        this.rootTexture = FractalGenerator.createJuliaTexture(p, w, h);
+        // The texture may be created much later; its randomness is set aside now
+        this.textureRandom = rng.split();
     }
 
     /**
@@ -96,14 +150,14 @@ public class StaticTree
 
     /**
      * Generates the tree structure recursively (Basic Fractal Tree algorithm).
-     * @param p Reference to PApplet.
+     * @param rng Random stream.
      * @param x Current X position.
      * @param y Current Y position.
      * @param len Length of the current branch.
      * @param angle Current angle.
      * @param depth Recursion depth.
      */
-    private void generate(PApplet p, float x, float y, float len, float angle, int depth)
+    private void generate(SimRandom rng, float x, float y, float len, float angle, int depth)
     {
         // Base case: if the branch is too small, stop.
         if (len < 5)
@@ -123,17 +177,17 @@ public class StaticTree
             // On middle branches, add fewer (1 to 3)
             if (depth > 4)
             {
-                count = (int) p.random(4, 8);
+                count = (int) rng.random(4, 8);
             }
             else
             {
-                count = (int) p.random(1, 3);
+                count = (int) rng.random(1, 3);
             }
 
             for (int i = 0; i < count; i++)
             {
-                float r = p.random(len);
-                float ang = p.random(PApplet.TWO_PI);
+                float r = rng.random(len);
+                float ang = rng.random(PApplet.TWO_PI);
                 
                 // Adds a leaf at a random position around the branch
                 float lx = x2 + PApplet.cos(ang) * r;
@@ -145,8 +199,8 @@ public class StaticTree
 
         // Recursive calls for the two new branches (left and right)
         // Multiplies len by 0.7 to decrease size at each step
-        generate(p, x2, y2, len * 0.7f, angle + PApplet.PI / 6, depth + 1);
-        generate(p, x2, y2, len * 0.7f, angle - PApplet.PI / 6, depth + 1);
+        generate(rng, x2, y2, len * 0.7f, angle + PApplet.PI / 6, depth + 1);
+        generate(rng, x2, y2, len * 0.7f, angle - PApplet.PI / 6, depth + 1);
     }
 
     /**
@@ -158,33 +212,89 @@ public class StaticTree
      */
     public void display(PApplet p, int leafColor, int seasonIdx, int rootColor)
     {
-        // 1. Draw Roots (Julia Set Texture)
+        displayRoots(p, p.g, rootColor);
+        displayCanopy(p, leafColor, seasonIdx);
+    }
+
+    /**
+     * Current growth factor of the roots.
+     * @return Growth from 0.0 to 1.0.
+     */
+    public float getRootGrowth()
+    {
+        return rootGrowth;
+    }
+
+    /**
+     * Width of the root system once fully grown.
+     * @return Width in pixels (centred on the trunk).
+     */
+    public int getRootWidth()
+    {
+        return (int) (size * 2.5f);
+    }
+
+    /**
+     * Depth of the root system once fully grown.
+     * @return Height in pixels (below the trunk base).
+     */
+    public int getRootHeight()
+    {
+        return (int) (size * 1.5f);
+    }
+
+    /**
+     * Draws the underground roots.
+     * @param p Reference to PApplet (creates the texture on the first call).
+     * @param g Target graphics (the screen, or a background layer).
+     * @param rootColor Root color (for tinting).
+     */
+    public void displayRoots(PApplet p, PGraphics g, int rootColor)
+    {
+        // Julia Set Texture
+        if (rootTexture == null)
+        {
+            // Generates the root texture using the external FractalGenerator
+            rootTexture = FractalGenerator.createJuliaTexture(p, textureRandom, getRootWidth(), getRootHeight());
+        }
+
         if (rootTexture != null)
         {
-            p.pushMatrix();
+            g.pushMatrix();
             
             float drawX = root.x - rootTexture.width / 2f;
             float drawY = root.y;
 
-            p.translate(drawX, drawY);
+            g.translate(drawX, drawY);
             
             // Y scale controls the vertical growth animation
-            p.scale(1.0f, rootGrowth);
+            g.scale(1.0f, rootGrowth);
 
-            p.tint(rootColor);
-            p.image(rootTexture, 0, 0);
-            p.noTint();
+            g.tint(rootColor);
+            g.image(rootTexture, 0, 0);
+            g.noTint();
 
-            p.popMatrix();
+            g.popMatrix();
         }
+    }
 
-        // 2. Draw Trunk (Recursive in real-time)
-        drawTrunk(p, root.x, root.y, size, -PApplet.PI / 2);
+    /**
+     * Draws the trunk and the leaves (cached layers).
+     * @param p Reference to PApplet.
+     * @param leafColor Leaf color (changes with the season).
+     * @param seasonIdx Current season index (used to simulate leaf fall).
+     */
+    public void displayCanopy(PApplet p, int leafColor, int seasonIdx)
+    {
+        // 1. Draw Trunk (Cached layer)
+        if (trunkLayer == null)
+        {
+            createLayers(p);
+        }
 
-        // 3. Draw Leaves
-        p.noStroke();
-        p.fill(leafColor);
+        p.image(trunkLayer, layerX, layerY);
 
+        // 2. Draw Leaves
         // Winter Logic:
         // If it is Winter (idx 3), we draw only 1 in every 3 leaves
         // to simulate leaf fall without destroying the original array.
@@ -198,17 +308,133 @@ public class StaticTree
             skip = 1;
         }
 
+        // The leaf layer is only rebuilt when the mask or the colour changes
+        if (skip != leafMaskSkip)
+        {
+            drawLeafMask(p, skip);
+            recolorLeaves(leafColor);
+        }
+        else if (leafColor != leafLayerColor)
+        {
+            recolorLeaves(leafColor);
+        }
+
+        p.image(leafLayer, layerX, layerY);
+    }
+
+    /**
+     * Measures the tree and renders the trunk layer.
+     */
+    private void createLayers(PApplet p)
+    {
+        // 1. Bounding box of the branches (with their stroke) and leaves
+        float[] box = {root.x, root.y, root.x, root.y};
+        measureTrunk(box, root.x, root.y, size, -PApplet.PI / 2);
+
+        for (PVector lp : leafPositions)
+        {
+            grow(box, lp.x, lp.y, 5);
+        }
+
+        // One extra pixel for antialiasing
+        layerX = (int) Math.floor(box[0]) - 1;
+        layerY = (int) Math.floor(box[1]) - 1;
+        int w = (int) Math.ceil(box[2]) + 2 - layerX;
+        int h = (int) Math.ceil(box[3]) + 2 - layerY;
+
+        // 2. Trunk, at the same sub-pixel positions as on screen
+        PGraphics g = p.createGraphics(w, h);
+        g.beginDraw();
+        g.clear();
+        g.translate(-layerX, -layerY);
+        drawTrunk(g, root.x, root.y, size, -PApplet.PI / 2);
+        g.endDraw();
+
+        trunkLayer = g.get();
+        leafLayer = new PImage(w, h, PConstants.ARGB);
+    }
+
+    /**
+     * Renders the leaf shapes (every {@code skip}-th leaf) into the mask.
+     */
+    private void drawLeafMask(PApplet p, int skip)
+    {
+        PGraphics g = p.createGraphics(trunkLayer.width, trunkLayer.height);
+        g.beginDraw();
+        g.clear();
+        g.translate(-layerX, -layerY);
+        g.noStroke();
+        g.fill(255);
+
         for (int i = 0; i < leafPositions.size(); i += skip)
         {
             PVector lp = leafPositions.get(i);
-            p.ellipse(lp.x, lp.y, 8, 6);
+            g.ellipse(lp.x, lp.y, 8, 6);
         }
+        g.endDraw();
+
+        leafMask = g.get();
+        leafMask.loadPixels();
+        leafMaskSkip = skip;
+    }
+
+    /**
+     * Rebuilds the leaf layer: the colour of every pixel, the coverage of the mask.
+     */
+    private void recolorLeaves(int leafColor)
+    {
+        int[] mask = leafMask.pixels;
+        int[] dst = leafLayer.pixels;
+        int rgb = leafColor & 0xFFFFFF;
+        int alpha = leafColor >>> 24;
+
+        for (int i = 0; i < dst.length; i++)
+        {
+            int a = (mask[i] >>> 24) * alpha / 255;
+            dst[i] = (a << 24) | rgb;
+        }
+
+        leafLayer.updatePixels();
+        leafLayerColor = leafColor;
+        leafRecolors++;
+    }
+
+    /**
+     * Recursive helper that grows a bounding box over the trunk lines.
+     */
+    private void measureTrunk(float[] box, float x, float y, float len, float angle)
+    {
+        if (len < 5)
+        {
+            return;
+        }
+
+        float x2 = x + PApplet.cos(angle) * len;
+        float y2 = y + PApplet.sin(angle) * len;
+        float halfWeight = len / 12;
+
+        grow(box, x, y, halfWeight);
+        grow(box, x2, y2, halfWeight);
+
+        measureTrunk(box, x2, y2, len * 0.7f, angle + PApplet.PI / 6);
+        measureTrunk(box, x2, y2, len * 0.7f, angle - PApplet.PI / 6);
+    }
+
+    /**
+     * Grows a bounding box {minX, minY, maxX, maxY} to contain a padded point.
+     */
+    private static void grow(float[] box, float x, float y, float pad)
+    {
+        box[0] = Math.min(box[0], x - pad);
+        box[1] = Math.min(box[1], y - pad);
+        box[2] = Math.max(box[2], x + pad);
+        box[3] = Math.max(box[3], y + pad);
     }
 
     /**
      * Recursive helper method to draw trunk lines.
      */
-    private void drawTrunk(PApplet p, float x, float y, float len, float angle)
+    private void drawTrunk(PGraphics p, float x, float y, float len, float angle)
     {
         if (len < 5)
         {
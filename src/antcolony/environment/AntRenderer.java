@@ -0,0 +1,188 @@
+package antcolony.environment;
+
+import antcolony.data.AntColonyConfig;
+import antcolony.entities.AntPool;
+import processing.core.PApplet;
+import processing.core.PGraphics;
+import processing.core.PImage;
+
+/**
+ * Batched ant renderer.
+ * <p>
+ * Drawing each ant with its own {@code stroke/fill/circle} calls and two
+ * text labels was the most expensive part of a frame with a large
+ * population. Here the four body styles (colony A/B, empty/carrying) are
+ * pre-rendered once into small sprite glyphs, using the colony colours of
+ * {@link ColorScheme}, and every ant is a single {@code image()} blit with
+ * no style change in between. The sprites are rebuilt only when those
+ * colours change.
+ * </p>
+ * <p>
+ * The state labels ("S", "R", "W") are a level-of-detail overlay: they are
+ * drawn on top of all bodies (text style set once per frame), and skipped
+ * entirely above {@link #labelMaxAnts} ants, where they would be unreadable
+ * anyway.
+ * </p>
+ */
+public class AntRenderer
+{
+    /**
+     * Side of a sprite glyph in pixels (body diameter plus outline, with margin).
+     */
+    private static final int SPRITE_SIZE = 8;
+
+    /**
+     * Offset from the ant position to the top-left corner of its sprite.
+     */
+    private static final int SPRITE_CENTER = SPRITE_SIZE / 2;
+
+    /**
+     * Body diameter in pixels (same as the former per-ant circle).
+     */
+    private static final float BODY_DIAMETER = 5;
+
+    /**
+     * Label of each state, indexed by {@code AntState.ordinal()}.
+     */
+    private static final String[] LABELS = {"S", "R", "W"};
+
+    /**
+     * Body sprites, indexed by {@code colonyId * 2 + (hasFood ? 1 : 0)}.
+     */
+    private final PImage[] sprites = new PImage[4];
+
+    /**
+     * Colony colours the sprites were built with (same indexing).
+     */
+    private final int[] spriteColors = new int[4];
+
+    /**
+     * Whether the state labels are drawn at all.
+     */
+    public boolean showLabels = AntColonyConfig.ANT_LABELS;
+
+    /**
+     * Largest population for which the state labels are drawn.
+     */
+    public int labelMaxAnts = AntColonyConfig.ANT_LABEL_MAX_ANTS;
+
+    // --- Statistics ---
+
+    /**
+     * Number of labels drawn by the last frame.
+     */
+    public int lastLabelCount = 0;
+
+    /**
+     * Number of times the sprites were (re)built.
+     */
+    public int spriteBuilds = 0;
+
+    /**
+     * Draws every ant of a pool.
+     * @param p PApplet reference.
+     * @param pool Ants to draw (the live pool or a snapshot copy).
+     * @param colors Colour scheme holding the colony colours.
+     */
+    public void draw(PApplet p, AntPool pool, ColorScheme colors)
+    {
+        updateSprites(p, colors);
+
+        int n = pool.size();
+
+        // 1. Bodies: one blit per ant
+        for (int i = 0; i < n; i++)
+        {
+            int style = pool.colonyId[i] * 2;
+            if (pool.hasFood[i])
+            {
+                style++;
+            }
+
+            p.image(sprites[style], Math.round(pool.posX[i]) - SPRITE_CENTER, Math.round(pool.posY[i]) - SPRITE_CENTER);
+        }
+
+        // 2. Labels (level of detail)
+        if (showLabels && n <= labelMaxAnts)
+        {
+            drawLabels(p, pool);
+            lastLabelCount = n;
+        }
+        else
+        {
+            lastLabelCount = 0;
+        }
+    }
+
+    /**
+     * Draws the state labels above the ants, shadows first.
+     */
+    private void drawLabels(PApplet p, AntPool pool)
+    {
+        int n = pool.size();
+
+        p.textAlign(PApplet.CENTER, PApplet.BOTTOM);
+        p.textSize(12);
+
+        // Shadow effect on text for readability
+        p.fill(0);
+        for (int i = 0; i < n; i++)
+        {
+            p.text(LABELS[pool.state[i]], pool.posX[i] + 1, pool.posY[i] - 7);
+        }
+
+        p.fill(255);
+        for (int i = 0; i < n; i++)
+        {
+            p.text(LABELS[pool.state[i]], pool.posX[i], pool.posY[i] - 8);
+        }
+
+        // Restore default alignment
+        p.textAlign(PApplet.LEFT, PApplet.TOP);
+    }
+
+    /**
+     * Rebuilds the body sprites if the colony colours changed.
+     */
+    private void updateSprites(PApplet p, ColorScheme colors)
+    {
+        int[] current = {colors.colA_Normal, colors.colA_Carry, colors.colB_Normal, colors.colB_Carry};
+
+        if (sprites[0] != null
+            && current[0] == spriteColors[0] && current[1] == spriteColors[1]
+            && current[2] == spriteColors[2] && current[3] == spriteColors[3])
+        {
+            return;
+        }
+
+        for (int colony = 0; colony < 2; colony++)
+        {
+            int normal = current[colony * 2];
+            int carry = current[colony * 2 + 1];
+
+            sprites[colony * 2] = renderBody(p, normal, normal);
+            sprites[colony * 2 + 1] = renderBody(p, normal, carry);
+        }
+
+        System.arraycopy(current, 0, spriteColors, 0, 4);
+        spriteBuilds++;
+    }
+
+    /**
+     * Renders one body style (outlined circle) into a transparent sprite.
+     */
+    private PImage renderBody(PApplet p, int outline, int body)
+    {
+        PGraphics g = p.createGraphics(SPRITE_SIZE, SPRITE_SIZE);
+
+        g.beginDraw();
+        g.clear();
+        g.stroke(outline);
+        g.strokeWeight(1);
+        g.fill(body);
+        g.circle(SPRITE_CENTER, SPRITE_CENTER, BODY_DIAMETER);
+        g.endDraw();
+
+        return g.get();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,474 @@
+package antcolony.environment;
+
+import antcolony.AntColonySimulation;
+import antcolony.data.AntColonyConfig;
+import antcolony.entities.StaticTree;
+import processing.core.PApplet;
+import processing.core.PConstants;
+import processing.core.PGraphics;
+import processing.core.PImage;
+import processing.core.PVector;
+
+/**
+ * Offscreen compositor for the static parts of the scene.
+ * <p>
+ * The underground (ground colour, soil texture and tree roots) only
+ * depends on the lighting level, the season and the slow growth of the
+ * roots. It is rendered into two offscreen layers that are blitted every
+ * frame and re-rendered only when one of their keys changes:
+ * </p>
+ * <ul>
+ *     <li>the ground (colour and texture): the lighting level, quantized
+ *     to {@link AntColonyConfig#BACKGROUND_LIGHT_LEVELS} buckets (it only
+ *     varies at dawn and dusk), and the season;</li>
+ *     <li>the roots (covering their bounding box only): the same keys,
+ *     plus the growth of each tree's roots, quantized to
+ *     {@link #ROOT_GROWTH_STEPS} steps (less than a pixel each). While the
+ *     roots grow, only this smaller layer is redrawn.</li>
+ * </ul>
+ * <p>
+ * The queens never change: each one is rendered once into a sprite. They
+ * stay a separate layer drawn above the pheromones, as before.
+ * </p>
+ */
+public class BackgroundCompositor
+{
+    /**
+     * Number of root growth steps that trigger a redraw.
+     */
+    private static final int ROOT_GROWTH_STEPS = 128;
+
+    /**
+     * Size of a queen sprite (the body spans 90 x 62 pixels).
+     */
+    private static final int QUEEN_W = 96;
+    private static final int QUEEN_H = 68;
+
+    /**
+     * Position of the queen's origin inside its sprite.
+     */
+    private static final int QUEEN_ORIGIN_X = 48;
+    private static final int QUEEN_ORIGIN_Y = 38;
+
+    /**
+     * Procedurally generated texture for the soil (ground).
+     * Cached to avoid regeneration every frame.
+     */
+    private PImage groundTexture;
+
+    /**
+     * Ground colour darkened by the soil texture (opaque).
+     */
+    private PImage groundLayer;
+
+    /**
+     * Roots of every tree.
+     */
+    private PGraphics rootLayer;
+
+    /**
+     * Top-left corners of the layers on screen.
+     */
+    private int groundX;
+    private int groundY;
+    private int rootX;
+    private int rootY;
+
+    // --- Keys of the Current Layers ---
+
+    /** Lighting bucket the ground was rendered with (-1 = none). */
+    private int groundBucket = -1;
+
+    /** Season the ground was rendered with. */
+    private int groundSeason = -1;
+
+    /** Lighting bucket the roots were rendered with (-1 = none). */
+    private int rootBucket = -1;
+
+    /** Season the roots were rendered with. */
+    private int rootSeason = -1;
+
+    /** Quantized root growth of each tree. */
+    private int[] rootSteps = new int[0];
+
+    /**
+     * Queen sprites, indexed by colony.
+     */
+    private final PImage[] queenSprites = new PImage[2];
+
+    // --- Statistics ---
+
+    /**
+     * Number of times the ground layer was rendered.
+     */
+    public int groundRedraws = 0;
+
+    /**
+     * Number of times the root layer was rendered.
+     */
+    public int rootRedraws = 0;
+
+    /**
+     * Number of frames drawn from the cached layers.
+     */
+    public long blits = 0;
+
+    /**
+     * Duration of the last ground layer redraw, in nanoseconds.
+     */
+    public long lastGroundNanos = 0;
+
+    /**
+     * Duration of the last root layer redraw, in nanoseconds.
+     */
+    public long lastRootsNanos = 0;
+
+    /**
+     * Time spent drawing both layers on the last frame, in nanoseconds.
+     */
+    public long lastBlitNanos = 0;
+
+    /**
+     * Time spent drawing both queens on the last frame, in nanoseconds.
+     */
+    public long lastQueensNanos = 0;
+
+    /**
+     * Forces the regeneration of the soil texture and the layer (e.g., if the window is resized).
+     */
+    public void reset()
+    {
+        groundTexture = null;
+        groundLayer = null;
+        rootLayer = null;
+        queenSprites[0] = null;
+        queenSprites[1] = null;
+    }
+
+    /**
+     * Draws the underground, re-rendering a layer first if one of its keys changed.
+     * @param p PApplet reference.
+     * @param sim Simulation reference.
+     * @param l Lighting level (0.0 = dark, 1.0 = light).
+     */
+    public void drawUnderground(PApplet p, AntColonySimulation sim, float l)
+    {
+        int bucket = Math.round(l * AntColonyConfig.BACKGROUND_LIGHT_LEVELS);
+        int season = sim.time.curSeasonIdx;
+
+        if (groundLayer == null || bucket != groundBucket || season != groundSeason
+            || groundLayer.width != p.width - sim.leftSidebarW - sim.rightSidebarW)
+        {
+            renderGround(p, sim, bucket);
+        }
+
+        if (rootLayer == null || bucket != rootBucket || season != rootSeason || rootsGrew(sim))
+        {
+            renderRoots(p, sim, bucket);
+        }
+
+        long start = System.nanoTime();
+        p.image(groundLayer, groundX, groundY);
+        p.image(rootLayer, rootX, rootY);
+        lastBlitNanos = System.nanoTime() - start;
+        blits++;
+    }
+
+    /**
+     * Draws a Colony Queen (Base) from its cached sprite.
+     * @param p PApplet reference.
+     * @param loc Queen's location.
+     * @param type Colony type (0 or 1).
+     */
+    public void drawQueen(PApplet p, PVector loc, int type)
+    {
+        long start = System.nanoTime();
+
+        // The sprite keeps the fractional part of the location
+        int x = (int) Math.floor(loc.x);
+        int y = (int) Math.floor(loc.y);
+
+        if (queenSprites[type] == null)
+        {
+            PGraphics g = p.createGraphics(QUEEN_W, QUEEN_H);
+            g.beginDraw();
+            g.clear();
+            g.translate(QUEEN_ORIGIN_X + loc.x - x, QUEEN_ORIGIN_Y + loc.y - y);
+            paintQueen(g, type);
+            g.endDraw();
+
+            queenSprites[type] = g.get();
+        }
+
+        p.image(queenSprites[type], x - QUEEN_ORIGIN_X, y - QUEEN_ORIGIN_Y);
+
+        // Both queens are drawn every frame: colony 1 closes the measurement
+        if (type == 0)
+        {
+            lastQueensNanos = System.nanoTime() - start;
+        }
+        else
+        {
+            lastQueensNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Checks whether the roots of a tree reached another growth step.
+     */
+    private boolean rootsGrew(AntColonySimulation sim)
+    {
+        if (rootSteps.length != sim.forest.size())
+        {
+            return true;
+        }
+
+        for (int i = 0; i < rootSteps.length; i++)
+        {
+            if (rootStep(sim.forest.get(i)) != rootSteps[i])
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Renders the ground layer (colour and soil texture) for a lighting bucket.
+     */
+    private void renderGround(PApplet p, AntColonySimulation sim, int bucket)
+    {
+        long start = System.nanoTime();
+
+        int w = p.width - sim.leftSidebarW - sim.rightSidebarW;
+        int hg = p.height - (int) Math.floor(sim.surfaceY);
+
+        if (groundLayer == null || groundLayer.width != w || groundLayer.height != hg)
+        {
+            groundLayer = new PImage(w, hg, PConstants.RGB);
+        }
+
+        groundX = sim.leftSidebarW;
+        groundY = (int) Math.floor(sim.surfaceY);
+
+        // Generates the noise texture (earth) on first use
+        if (groundTexture == null || groundTexture.width != w || groundTexture.height != (int) (p.height - sim.surfaceY))
+        {
+            generateSoilTexture(p, sim, w, (int) (p.height - sim.surfaceY));
+        }
+
+        // The texture is black with a varying alpha: composited over the
+        // soil colour, it scales each channel by (255 - alpha) / 255
+        int ground = groundColor(p, sim, bucket);
+        int r = (ground >> 16) & 0xFF;
+        int g = (ground >> 8) & 0xFF;
+        int b = ground & 0xFF;
+
+        int[] tex = groundTexture.pixels;
+        int[] dst = groundLayer.pixels;
+        int n = Math.min(tex.length, dst.length);
+
+        for (int i = 0; i < n; i++)
+        {
+            int keep = 255 - (tex[i] >>> 24);
+
+            dst[i] = 0xFF000000
+                     | ((r * keep + 127) / 255) << 16
+                     | ((g * keep + 127) / 255) << 8
+                     | ((b * keep + 127) / 255);
+        }
+
+        // Rows below the texture (rounding of the surface height) keep the plain colour
+        for (int i = n; i < dst.length; i++)
+        {
+            dst[i] = ground | 0xFF000000;
+        }
+
+        groundLayer.updatePixels();
+
+        groundBucket = bucket;
+        groundSeason = sim.time.curSeasonIdx;
+        groundRedraws++;
+        lastGroundNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Renders the root layer (bounding box of all root systems) for a lighting bucket.
+     */
+    private void renderRoots(PApplet p, AntColonySimulation sim, int bucket)
+    {
+        long start = System.nanoTime();
+
+        // 1. Bounding box of the fully grown roots
+        float minX = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+
+        for (StaticTree t : sim.forest)
+        {
+            minX = Math.min(minX, t.root.x - t.getRootWidth() / 2f);
+            maxX = Math.max(maxX, t.root.x + t.getRootWidth() / 2f);
+            minY = Math.min(minY, t.root.y);
+            maxY = Math.max(maxY, t.root.y + t.getRootHeight());
+        }
+
+        if (sim.forest.isEmpty())
+        {
+            minX = 0;
+            maxX = 1;
+            minY = 0;
+            maxY = 1;
+        }
+
+        rootX = (int) Math.floor(minX);
+        rootY = (int) Math.floor(minY);
+        int w = (int) Math.ceil(maxX) - rootX;
+        int h = (int) Math.ceil(maxY) - rootY;
+
+        if (rootLayer == null || rootLayer.width != w || rootLayer.height != h)
+        {
+            rootLayer = p.createGraphics(w, h);
+        }
+
+        // 2. Root color based on lighting
+        float l = bucket / (float) AntColonyConfig.BACKGROUND_LIGHT_LEVELS;
+        int cRootNight = p.color(140, 100, 70);
+        int cRootDay = p.lerpColor(groundColor(p, sim, bucket), p.color(0), 0.5f);
+        int finalRootColor = p.lerpColor(cRootNight, cRootDay, l);
+
+        // 3. Roots
+        if (rootSteps.length != sim.forest.size())
+        {
+            rootSteps = new int[sim.forest.size()];
+        }
+
+        rootLayer.beginDraw();
+        rootLayer.clear();
+        rootLayer.translate(-rootX, -rootY);
+
+        for (int i = 0; i < sim.forest.size(); i++)
+        {
+            StaticTree t = sim.forest.get(i);
+
+            t.displayRoots(p, rootLayer, finalRootColor);
+            rootSteps[i] = rootStep(t);
+        }
+
+        rootLayer.endDraw();
+
+        rootBucket = bucket;
+        rootSeason = sim.time.curSeasonIdx;
+        rootRedraws++;
+        lastRootsNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Ground color of a lighting bucket (interpolated between night and day).
+     */
+    private int groundColor(PApplet p, AntColonySimulation sim, int bucket)
+    {
+        float l = bucket / (float) AntColonyConfig.BACKGROUND_LIGHT_LEVELS;
+
+        return p.lerpColor(sim.colors.cGroundNight, sim.colors.cGroundDay, l);
+    }
+
+    /**
+     * Quantized root growth of a tree.
+     */
+    private static int rootStep(StaticTree t)
+    {
+        return (int) (t.getRootGrowth() * ROOT_GROWTH_STEPS);
+    }
+
+    /**
+     * Generates a Perlin noise texture to simulate earth/soil.
+     */
+    private void generateSoilTexture(PApplet p, AntColonySimulation sim, int w, int h)
+    {
+        groundTexture = p.createImage(w, h, PConstants.ARGB);
+        groundTexture.loadPixels();
+
+        // Same seed, same soil
+        p.noiseSeed(sim.seed);
+
+        float noiseScale = 0.02f;
+
+        for (int i = 0; i < groundTexture.pixels.length; i++)
+        {
+            int x = i % w;
+            int y = i / w;
+
+            float n = p.noise(x * noiseScale, y * noiseScale);
+
+            // Maps noise to transparency (Alpha)
+            int alpha = (int) PApplet.map(n, 0, 1, 0, 50);
+
+            // Adds some random darker grains (stones/debris)
+            if (sim.visualRandom.nextFloat() < 0.15f)
+            {
+                alpha += 10;
+            }
+
+            groundTexture.pixels[i] = p.color(0, 0, 0, alpha);
+        }
+
+        groundTexture.updatePixels();
+    }
+
+    /**
+     * Paints a queen around the origin of a graphics context.
+     */
+    private void paintQueen(PGraphics g, int type)
+    {
+        g.noStroke();
+
+        int dark, mid, light;
+
+        if (type == 0)
+        {
+            dark = g.color(50, 40, 30);
+            mid = g.color(80, 60, 45);
+            light = g.color(100, 80, 60);
+        }
+        else
+        {
+            dark = g.color(80, 40, 30);
+            mid = g.color(120, 60, 40);
+            light = g.color(160, 90, 60);
+        }
+
+        // Body drawing (segmented)
+        g.fill(dark);
+        g.ellipse(0, 0, 90, 50); // Abdomen
+
+        g.fill(mid);
+        g.ellipse(0, -5, 70, 40); // Thorax
+
+        g.fill(light);
+        g.ellipse(0, -10, 50, 25); // Head
+
+        // Eyes
+        g.fill(20, 10, 5);
+        g.ellipse(0, -12, 25, 12);
+
+        // Antennae
+        g.stroke(0, 50);
+        g.strokeWeight(1);
+        g.line(0, -12, 0, -35);
+
+        // Flag / Color indicator
+        g.noStroke();
+        if (type == 0)
+        {
+            g.fill(g.color(50, 100, 255));
+        }
+        else
+        {
+            g.fill(g.color(255, 50, 50));
+        }
+
+        g.triangle(0, -35, 15, -28, 0, -22);
+    }
+}
\ No newline at end of file
@@ -1,12 +1,11 @@
 package antcolony.environment;
 
 import antcolony.AntColonySimulation;
-import antcolony.entities.Ant;
+import antcolony.RenderSnapshot;
+import antcolony.entities.AntPool;
 import antcolony.entities.FallingLeaf;
 import antcolony.entities.StaticTree;
 import processing.core.PApplet;
-import processing.core.PConstants;
-import processing.core.PImage;
 import processing.core.PVector;
 
 /**
@@ -20,17 +19,26 @@ import processing.core.PVector;
 public class EnvironmentRenderer
 {
     /**
-     * Procedurally generated texture for the soil (ground).
-     * Cached to avoid regeneration every frame.
+     * Cached underground layer and queen sprites.
      */
-    private PImage groundTexture;
+    public final BackgroundCompositor background = new BackgroundCompositor();
+
+    /**
+     * Incrementally updated pheromone layer.
+     */
+    public final PheromoneOverlay pheromoneOverlay = new PheromoneOverlay();
+
+    /**
+     * Batched ant bodies and level-of-detail labels.
+     */
+    public final AntRenderer antRenderer = new AntRenderer();
 
     /**
      * Forces the regeneration of the soil texture (e.g., if the window is resized).
      */
     public void resetTexture()
     {
-        groundTexture = null;
+        background.reset();
     }
 
     /**
@@ -140,165 +148,38 @@ public class EnvironmentRenderer
             l = 0f; // Night
         }
         
-        p.noStroke();
-        
-        // Interpolates the soil background color (earth)
-        int groundColor = p.lerpColor(sim.colors.cGroundNight, sim.colors.cGroundDay, l);
-        p.fill(groundColor);
-        
-        float w = p.width - sim.leftSidebarW - sim.rightSidebarW;
-        float hg = p.height - sim.surfaceY;
+        // Ground, soil texture and roots (cached, see BackgroundCompositor)
+        background.drawUnderground(p, sim, l);
         
-        // Draws the base ground rectangle
-        p.rect(sim.leftSidebarW, sim.surfaceY, w, hg);
-
-        // Generates or draws the noise texture (earth)
-        if (groundTexture == null || groundTexture.width != (int) w || groundTexture.height != (int) hg)
-        {
-            generateSoilTexture(p, (int) w, (int) hg);
-        }
-        
-        if (groundTexture != null)
-        {
-            p.image(groundTexture, sim.leftSidebarW, sim.surfaceY);
-        }
-        
-        // Calculates root color based on lighting
-        int cRootNight = p.color(140, 100, 70);
-        int cRootDay = p.lerpColor(groundColor, p.color(0), 0.5f);
-        int finalRootColor = p.lerpColor(cRootNight, cRootDay, l);
-        
-        // Draws the forest (Trees and Roots)
+        // Draws the forest (Trunks and Canopy)
         for (StaticTree t : sim.forest)
         {
             int tc = sim.colors.calculateTreeColor(p, sim, t.colorOffset);
-            t.display(p, tc, sim.time.curSeasonIdx, finalRootColor);
+            t.displayCanopy(p, tc, sim.time.curSeasonIdx);
         }
     }
 
     /**
-     * Generates a Perlin noise texture to simulate earth/soil.
+     * Visualizes the pheromone grid.
+     * <p>
+     * The overlay is a grid-resolution image refreshed incrementally
+     * (see {@link PheromoneOverlay}) and scaled up in a single draw call.
+     * </p>
      */
-    private void generateSoilTexture(PApplet p, int w, int h)
+    public void drawPheromones(PApplet p, AntColonySimulation sim)
     {
-        groundTexture = p.createImage(w, h, PConstants.ARGB);
-        groundTexture.loadPixels();
-        
-        float noiseScale = 0.02f;
-        
-        for (int i = 0; i < groundTexture.pixels.length; i++)
-        {
-            int x = i % w;
-            int y = i / w;
-            
-            float n = p.noise(x * noiseScale, y * noiseScale);
-            
-            // Maps noise to transparency (Alpha)
-            int alpha = (int) PApplet.map(n, 0, 1, 0, 50);
-            
-            // Adds some random darker grains (stones/debris)
-            if (p.random(1) < 0.15f)
-            {
-                alpha += 10;
-            }
-            
-            groundTexture.pixels[i] = p.color(0, 0, 0, alpha);
-        }
-        
-        groundTexture.updatePixels();
+        pheromoneOverlay.update(sim.pheromones);
+        pheromoneOverlay.draw(p);
     }
 
     /**
-     * Visualizes the pheromone grid.
-     * Draws pixels directly to the screen for maximum performance.
+     * Draws the pheromone layer of a render snapshot.
+     * @param p PApplet reference.
+     * @param frame Snapshot published by the simulation thread.
      */
-    public void drawPheromones(PApplet p, AntColonySimulation sim)
+    public void drawPheromones(PApplet p, RenderSnapshot frame)
     {
-        p.loadPixels();
-        
-        for (int x = 0; x < sim.cols; x++)
-        {
-            int sx = x * sim.resolution;
-            
-            // Ignores columns outside the visible area (under the sidebars)
-            if (sx < sim.leftSidebarW || sx > p.width - sim.rightSidebarW)
-            {
-                continue;
-            }
-
-            for (int y = 0; y < sim.rows; y++)
-            {
-                int sy = y * sim.resolution;
-                
-                // Ignores lines above the surface (in the sky)
-                if (sy < sim.surfaceY)
-                {
-                    continue;
-                }
-
-                // Checks distance to nests. If less than 25px, skips this pixel.
-                boolean underQueenA = PApplet.dist(sx, sy, sim.queenLocA.x, sim.queenLocA.y) < 25;
-                boolean underQueenB = PApplet.dist(sx, sy, sim.queenLocB.x, sim.queenLocB.y) < 25;
-
-                if (underQueenA || underQueenB)
-                {
-                    continue; // Draws nothing here (remains transparent)
-                }
-
-                // Gets intensity of the 4 pheromones
-                float hA = sim.pheromones.grid[x][y][0]; // Home A
-                float fA = sim.pheromones.grid[x][y][1]; // Food A
-                float hB = sim.pheromones.grid[x][y][2]; // Home B
-                float fB = sim.pheromones.grid[x][y][3]; // Food B
-
-                // If there is any pheromone in this cell
-                if (hA > 0.01 || fA > 0.01 || hB > 0.01 || fB > 0.01)
-                {
-                    float r = 0, g = 0, b = 0, alpha = 0;
-
-                    // Blends Colony A colors (Bluish)
-                    if (hA > 0 || fA > 0)
-                    {
-                        b += 255 * hA + 255 * fA; 
-                        g += 200 * fA;            
-                        r += 20 * (hA + fA);      
-                        alpha += (hA + fA) * 255;
-                    }
-
-                    // Blends Colony B colors (Reddish)
-                    if (hB > 0 || fB > 0)
-                    {
-                        r += 255 * hB + 255 * fB; 
-                        g += 140 * fB;            
-                        b += 20 * (hB + fB);      
-                        alpha += (hB + fB) * 255;
-                    }
-                    
-                    // Draws pixel if visible
-                    if (alpha > 0)
-                    {
-                        int c = p.color(Math.min(r, 255), Math.min(g, 255), Math.min(b, 255));
-                        
-                        // Fills resolution block (e.g., 4x4 pixels)
-                        for (int px = 0; px < sim.resolution; px++)
-                        {
-                            for (int py = 0; py < sim.resolution; py++)
-                            {
-                                int ix = (sx + px) + (sy + py) * p.width;
-                                
-                                // Pixel array boundary check
-                                if (ix >= 0 && ix < p.pixels.length)
-                                {
-                                    p.pixels[ix] = c;
-                                }
-                            }
-                        }
-                    }
-                }
-            }
-        }
-        
-        p.updatePixels();
+        frame.pheromones.draw(p);
     }
 
     /**
@@ -309,61 +190,7 @@ public class EnvironmentRenderer
      */
     public void drawQueen(PApplet p, PVector loc, int type)
     {
-        float x = loc.x;
-        float y = loc.y;
-        
-        p.pushMatrix();
-        p.translate(x, y);
-        p.noStroke();
-        
-        int dark, mid, light;
-        
-        if (type == 0)
-        {
-            dark = p.color(50, 40, 30);
-            mid = p.color(80, 60, 45);
-            light = p.color(100, 80, 60);
-        }
-        else
-        {
-            dark = p.color(80, 40, 30);
-            mid = p.color(120, 60, 40);
-            light = p.color(160, 90, 60);
-        }
-
-        // Body drawing (segmented)
-        p.fill(dark);
-        p.ellipse(0, 0, 90, 50); // Abdomen
-        
-        p.fill(mid);
-        p.ellipse(0, -5, 70, 40); // Thorax
-        
-        p.fill(light);
-        p.ellipse(0, -10, 50, 25); // Head
-        
-        // Eyes
-        p.fill(20, 10, 5);
-        p.ellipse(0, -12, 25, 12);
-        
-        // Antennae
-        p.stroke(0, 50);
-        p.strokeWeight(1);
-        p.line(0, -12, 0, -35);
-        
-        // Flag / Color indicator
-        p.noStroke();
-        if (type == 0)
-        {
-            p.fill(p.color(50, 100, 255));
-        }
-        else
-        {
-            p.fill(p.color(255, 50, 50));
-        }
-        
-        p.triangle(0, -35, 15, -28, 0, -22);
-        
-        p.popMatrix();
+        background.drawQueen(p, loc, type);
     }
 
     /**
@@ -378,13 +205,35 @@ public class EnvironmentRenderer
     }
 
     /**
-     * Draws all ants.
+     * Draws the leaves of a render snapshot.
+     * @param p PApplet reference.
+     * @param frame Snapshot published by the simulation thread.
      */
-    public void drawAnts(PApplet p, AntColonySimulation sim)
+    public void drawFallingLeaves(PApplet p, RenderSnapshot frame)
     {
-        for (Ant a : sim.ants)
+        for (int i = 0; i < frame.leafCount; i++)
         {
-            a.display(p);
+            FallingLeaf.draw(p, frame.leafX[i], frame.leafY[i], frame.leafAmount[i], frame.leafColor[i]);
         }
     }
+
+    /**
+     * Draws all ants.
+     * Reads the pool directly (see {@link AntRenderer}).
+     */
+    public void drawAnts(PApplet p, AntColonySimulation sim)
+    {
+        drawAnts(p, sim.ants, sim.colors);
+    }
+
+    /**
+     * Draws every ant of a pool (the live pool or a snapshot copy).
+     * @param p PApplet reference.
+     * @param pool Ants to draw.
+     * @param colors Colour scheme holding the colony colours.
+     */
+    public void drawAnts(PApplet p, AntPool pool, ColorScheme colors)
+    {
+        antRenderer.draw(p, pool, colors);
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package antcolony.environment;
 
+import antcolony.data.SimRandom;
 import processing.core.PApplet;
 import processing.core.PGraphics;
 
@@ -29,11 +30,12 @@ public class FractalGenerator
      * desired color using `p.tint()` during rendering.
      * </p>
      * @param p Reference to PApplet (to create the buffer and colors).
+     * @param rng Random stream (shape variation).
      * @param w Texture width.
      * @param h Texture height.
      * @return A PGraphics object containing the generated texture.
      */
-    public static PGraphics createJuliaTexture(PApplet p, int w, int h)
+    public static PGraphics createJuliaTexture(PApplet p, SimRandom rng, int w, int h)
     {
         // Creates an off-screen graphical buffer
         PGraphics pg = p.createGraphics(w, h);
@@ -52,8 +54,8 @@ public class FractalGenerator
         float baseCy = 0.1f;
         
         // Adds randomness so each tree has unique roots
-        float cx = baseCx + p.random(-0.08f, 0.08f);
-        float cy = baseCy + p.random(-0.08f, 0.08f);
+        float cx = baseCx + rng.random(-0.08f, 0.08f);
+        float cy = baseCy + rng.random(-0.08f, 0.08f);
         
         int maxIterations = 50;
 
@@ -0,0 +1,254 @@
+package antcolony.environment;
+
+import antcolony.AntColonySimulation;
+import processing.core.PVector;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Pheromone field with lazy (time-stamped) evaporation.
+ * <p>
+ * Instead of multiplying every ground cell on every tick, each channel keeps
+ * a running sum of the logarithm of its evaporation factor (the "decay clock").
+ * Every cell remembers the clock value at the moment it was last written.
+ * When the cell is read, the decay accumulated since then is applied:
+ * </p>
+ * <pre>
+ *     value(now) = stored * exp(clock(now) - clock(write))
+ * </pre>
+ * <p>
+ * This is equivalent to {@code evapRate^(now - last)} while the rate stays
+ * constant, and remains exact when the Memory sliders are moved mid-run,
+ * because the clock integrates whatever factor was active on each tick.
+ * The per-tick cost of {@link #evaporate} is therefore O(1) instead of O(cells).
+ * </p>
+ */
+public class LazyPheromoneField extends PheromoneField
+{
+    /**
+     * Smallest factor fed into the logarithm (avoids log(0) = -Infinity).
+     */
+    private static final double MIN_FACTOR = 1e-30;
+
+    /**
+     * Accumulated log-decay of each channel since the last reset.
+     */
+    private final double[] clock = new double[CHANNELS];
+
+    /**
+     * Clock value of each channel at the time every cell was last written.
+     */
+    private final double[][] stamp;
+
+    /**
+     * Lazy Pheromone Field Constructor.
+     * @param cols Number of columns.
+     * @param rows Number of rows.
+     * @param resolution Cell size in pixels.
+     */
+    public LazyPheromoneField(int cols, int rows, int resolution)
+    {
+        super(cols, rows, resolution);
+        this.stamp = new double[CHANNELS][cols * rows];
+    }
+
+    /**
+     * Clears all pheromones, rewinds the decay clocks and resets the nests.
+     * @param queenLoc1 Queen A location.
+     * @param queenLoc2 Queen B location.
+     */
+    @Override
+    public void reset(PVector queenLoc1, PVector queenLoc2)
+    {
+        Arrays.fill(clock, 0);
+        for (int c = 0; c < CHANNELS; c++)
+        {
+            Arrays.fill(stamp[c], 0);
+        }
+
+        super.reset(queenLoc1, queenLoc2);
+    }
+
+    /**
+     * Advances the decay clocks by one tick.
+     * <p>
+     * No cell is touched here; the decay is applied on the next access.
+     * </p>
+     * @param sim Simulation reference (for evaporation rates).
+     */
+    @Override
+    public void evaporate(AntColonySimulation sim)
+    {
+        updateEvapFactors(sim);
+        markChanged();
+
+        for (int c = 0; c < CHANNELS; c++)
+        {
+            clock[c] += Math.log(Math.max(evapFactors[c], MIN_FACTOR));
+        }
+    }
+
+    /**
+     * Copies the current (decayed) values of a range of cells of one channel into a buffer.
+     * <p>
+     * The stored values and their stamps are left untouched: applying the
+     * decay early would round the values differently from a run that was
+     * never exported. {@link #exportStored} and {@link #exportStamps} save
+     * the exact state.
+     * </p>
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param dst Buffer receiving {@code dst.remaining()} values in row-major order.
+     */
+    @Override
+    public void exportChannel(int channel, int from, FloatBuffer dst)
+    {
+        int end = from + dst.remaining();
+
+        for (int i = from; i < end; i++)
+        {
+            dst.put(getAt(i, channel));
+        }
+    }
+
+    /**
+     * Replaces a range of cells of one channel and stamps them with the current clock.
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param src Buffer holding {@code src.remaining()} values in row-major order.
+     */
+    @Override
+    public void importChannel(int channel, int from, FloatBuffer src)
+    {
+        int end = from + src.remaining();
+
+        super.importChannel(channel, from, src);
+        Arrays.fill(stamp[channel], from, end, clock[channel]);
+    }
+
+    /**
+     * Decay clock of one channel.
+     * @param channel Channel ID (0-3).
+     * @return Accumulated log-decay since the last reset.
+     */
+    public double getClock(int channel)
+    {
+        return clock[channel];
+    }
+
+    /**
+     * Restores the decay clock of one channel (snapshot restore).
+     * @param channel Channel ID (0-3).
+     * @param value Clock saved with {@link #getClock(int)}.
+     */
+    public void setClock(int channel, double value)
+    {
+        clock[channel] = value;
+    }
+
+    /**
+     * Copies the stored values (before pending decay) of a range of cells of one channel.
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param dst Buffer receiving {@code dst.remaining()} values.
+     */
+    public void exportStored(int channel, int from, FloatBuffer dst)
+    {
+        super.exportChannel(channel, from, dst);
+    }
+
+    /**
+     * Replaces the stored values of a range of cells of one channel, keeping their stamps.
+     * <p>
+     * {@link #finishImport()} must be called once all channels are imported.
+     * </p>
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param src Buffer holding {@code src.remaining()} values.
+     */
+    public void importStored(int channel, int from, FloatBuffer src)
+    {
+        super.importChannel(channel, from, src);
+    }
+
+    /**
+     * Copies the write stamps of a range of cells of one channel.
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param dst Buffer receiving {@code dst.remaining()} stamps.
+     */
+    public void exportStamps(int channel, int from, DoubleBuffer dst)
+    {
+        dst.put(stamp[channel], from, dst.remaining());
+    }
+
+    /**
+     * Replaces the write stamps of a range of cells of one channel.
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param src Buffer holding {@code src.remaining()} stamps.
+     */
+    public void importStamps(int channel, int from, DoubleBuffer src)
+    {
+        src.get(stamp[channel], from, src.remaining());
+    }
+
+    /**
+     * Obtains the pheromone value at a flat cell index, applying pending decay.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @return Intensity (0.0 to 1.0).
+     */
+    @Override
+    public float getAt(int i, int channel)
+    {
+        // The nest zone is kept permanently "fresh"
+        if (isNestHome(i, channel))
+        {
+            return 1.0f;
+        }
+
+        float v = grid[channel][i];
+
+        // Cells outside the playable area never evaporate
+        if (v == 0 || (cellMask[i] & PLAYABLE) == 0)
+        {
+            return v;
+        }
+
+        return (float) (v * Math.exp(clock[channel] - stamp[channel][i]));
+    }
+
+    /**
+     * Stores a value and stamps the cell with the current decay clock.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param v New intensity.
+     */
+    @Override
+    protected void putAt(int i, int channel, float v)
+    {
+        grid[channel][i] = v;
+        stamp[channel][i] = clock[channel];
+    }
+
+    /**
+     * Checks whether a channel of a cell is pinned to 1.0 by a nest zone.
+     */
+    private boolean isNestHome(int i, int channel)
+    {
+        if (channel == 0)
+        {
+            return (cellMask[i] & NEST_A) != 0;
+        }
+
+        if (channel == 2)
+        {
+            return (cellMask[i] & NEST_B) != 0;
+        }
+
+        return false;
+    }
+}
\ No newline at end of file
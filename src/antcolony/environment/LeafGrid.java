@@ -0,0 +1,236 @@
+package antcolony.environment;
+
+import antcolony.entities.FallingLeaf;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uniform-grid spatial index for leaves resting on the ground.
+ * <p>
+ * The world is divided into square buckets of {@link #cellSize} pixels.
+ * Each bucket stores the leaves whose position falls inside it, so
+ * proximity queries (smell radius, pickup radius) only visit the few
+ * buckets that overlap the search circle instead of the entire leaf list.
+ * </p>
+ * <p>
+ * Leaves still in the air are not indexed, since ants ignore them.
+ * The index is rebuilt once per physics step, after leaves have moved.
+ * </p>
+ */
+public class LeafGrid
+{
+    /**
+     * Size of each bucket in pixels.
+     */
+    public final float cellSize;
+
+    /**
+     * Number of bucket columns.
+     */
+    public final int cols;
+
+    /**
+     * Number of bucket rows.
+     */
+    public final int rows;
+
+    /**
+     * Buckets stored in row-major order (index = row * cols + col).
+     */
+    private final ArrayList<ArrayList<FallingLeaf>> buckets;
+
+    /**
+     * Number of leaves currently indexed.
+     */
+    private int count = 0;
+
+    /**
+     * Leaf Grid Constructor.
+     * @param worldW World width in pixels.
+     * @param worldH World height in pixels.
+     * @param cellSize Bucket size in pixels.
+     */
+    public LeafGrid(float worldW, float worldH, float cellSize)
+    {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (int) Math.ceil(worldW / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldH / cellSize));
+
+        this.buckets = new ArrayList<>(cols * rows);
+        for (int i = 0; i < cols * rows; i++)
+        {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Rebuilds the index from the current leaf list.
+     * @param leaves All leaves in the simulation.
+     * @param surfaceY Ground level (leaves above it are skipped).
+     */
+    public void rebuild(List<FallingLeaf> leaves, float surfaceY)
+    {
+        clear();
+
+        for (FallingLeaf leaf : leaves)
+        {
+            // Ignores leaves still in the air (above the surface)
+            if (leaf.phys.posPx.y < surfaceY)
+            {
+                continue;
+            }
+
+            buckets.get(bucketIndex(leaf.phys.posPx.x, leaf.phys.posPx.y)).add(leaf);
+            count++;
+        }
+    }
+
+    /**
+     * Removes all leaves from the index.
+     */
+    public void clear()
+    {
+        if (count == 0)
+        {
+            return;
+        }
+
+        for (ArrayList<FallingLeaf> b : buckets)
+        {
+            b.clear();
+        }
+        count = 0;
+    }
+
+    /**
+     * Number of leaves currently indexed.
+     * @return Indexed (ground) leaf count.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Finds the closest indexed leaf within a radius.
+     * @param x Query X position.
+     * @param y Query Y position.
+     * @param radius Search radius (exclusive).
+     * @return The closest leaf, or null if none is inside the radius.
+     */
+    public FallingLeaf findNearest(float x, float y, float radius)
+    {
+        if (count == 0)
+        {
+            return null;
+        }
+
+        FallingLeaf closest = null;
+        float recordSq = radius * radius;
+
+        int c0 = clampCol(x - radius);
+        int c1 = clampCol(x + radius);
+        int r0 = clampRow(y - radius);
+        int r1 = clampRow(y + radius);
+
+        for (int r = r0; r <= r1; r++)
+        {
+            for (int c = c0; c <= c1; c++)
+            {
+                for (FallingLeaf leaf : buckets.get(r * cols + c))
+                {
+                    float dx = leaf.phys.posPx.x - x;
+                    float dy = leaf.phys.posPx.y - y;
+                    float dSq = dx * dx + dy * dy;
+
+                    if (dSq < recordSq)
+                    {
+                        recordSq = dSq;
+                        closest = leaf;
+                    }
+                }
+            }
+        }
+
+        return closest;
+    }
+
+    /**
+     * Finds any indexed leaf within a radius (first match in bucket order).
+     * @param x Query X position.
+     * @param y Query Y position.
+     * @param radius Search radius (exclusive).
+     * @return A leaf inside the radius, or null if there is none.
+     */
+    public FallingLeaf findAny(float x, float y, float radius)
+    {
+        if (count == 0)
+        {
+            return null;
+        }
+
+        float radiusSq = radius * radius;
+
+        int c0 = clampCol(x - radius);
+        int c1 = clampCol(x + radius);
+        int r0 = clampRow(y - radius);
+        int r1 = clampRow(y + radius);
+
+        for (int r = r0; r <= r1; r++)
+        {
+            for (int c = c0; c <= c1; c++)
+            {
+                for (FallingLeaf leaf : buckets.get(r * cols + c))
+                {
+                    float dx = leaf.phys.posPx.x - x;
+                    float dy = leaf.phys.posPx.y - y;
+
+                    if (dx * dx + dy * dy < radiusSq)
+                    {
+                        return leaf;
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Converts a world position into a bucket index (clamped to the grid).
+     */
+    private int bucketIndex(float x, float y)
+    {
+        return clampRow(y) * cols + clampCol(x);
+    }
+
+    /**
+     * Converts a world X coordinate into a valid bucket column.
+     */
+    private int clampCol(float x)
+    {
+        int c = (int) (x / cellSize);
+
+        if (c < 0)
+        {
+            return 0;
+        }
+
+        return Math.min(c, cols - 1);
+    }
+
+    /**
+     * Converts a world Y coordinate into a valid bucket row.
+     */
+    private int clampRow(float y)
+    {
+        int r = (int) (y / cellSize);
+
+        if (r < 0)
+        {
+            return 0;
+        }
+
+        return Math.min(r, rows - 1);
+    }
+}
\ No newline at end of file
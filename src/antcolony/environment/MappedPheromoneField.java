@@ -0,0 +1,297 @@
+package antcolony.environment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Pheromone field stored in a memory-mapped file instead of the Java heap.
+ * <p>
+ * Each channel is one mapped region of the file (row-major floats), so very
+ * large worlds only cost address space: the operating system pages the grid
+ * in and out as the sweeps walk over it. The file doubles as a persistent
+ * copy of the field. {@link #flush()} makes it consistent on disk, and
+ * opening the same file again with the same dimensions maps the saved values
+ * back without reading them.
+ * </p>
+ * <p>
+ * File layout (little-endian): a {@value #HEADER_BYTES}-byte header
+ * (magic, version, cols, rows, resolution) followed by the four channels.
+ * A channel may hold at most {@code Integer.MAX_VALUE / 4} cells (one mapping
+ * per channel). The sparse evaporation mode is not supported by this backend.
+ * </p>
+ */
+public class MappedPheromoneField extends PheromoneField
+{
+    /** File signature ("PHER"). */
+    private static final int MAGIC = 0x50484552;
+
+    /** File format version. */
+    private static final int VERSION = 1;
+
+    /** Size of the header (keeps the channel data 64-byte aligned). */
+    public static final int HEADER_BYTES = 64;
+
+    /**
+     * File holding the field.
+     */
+    public final Path file;
+
+    /**
+     * Mapped header region.
+     */
+    private final MappedByteBuffer header;
+
+    /**
+     * Mapped byte regions, one per channel (kept for {@link #flush()}).
+     */
+    private final MappedByteBuffer[] regions = new MappedByteBuffer[CHANNELS];
+
+    /**
+     * Float views of the channel regions.
+     */
+    private final FloatBuffer[] channels = new FloatBuffer[CHANNELS];
+
+    /**
+     * Whether the file already contained a field of the same dimensions.
+     */
+    private final boolean reopened;
+
+    /**
+     * Mapped Pheromone Field Constructor.
+     * <p>
+     * Creates the file if needed. If it already holds a field with the same
+     * dimensions its values are kept (see {@link #isReopened()}); otherwise
+     * it is resized and starts zeroed.
+     * </p>
+     * @param file Backing file.
+     * @param cols Number of columns.
+     * @param rows Number of rows.
+     * @param resolution Cell size in pixels.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    public MappedPheromoneField(Path file, int cols, int rows, int resolution) throws IOException
+    {
+        super(cols, rows, resolution, false);
+        this.file = file;
+
+        long cells = (long) cols * rows;
+        if (cells * 4 > Integer.MAX_VALUE)
+        {
+            throw new IOException("Pheromone grid too large for a mapped channel: " + cols + "x" + rows);
+        }
+
+        long channelBytes = cells * 4;
+        long fileBytes = HEADER_BYTES + CHANNELS * channelBytes;
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            boolean matches = ch.size() == fileBytes && headerMatches(ch, cols, rows, resolution);
+
+            if (!matches)
+            {
+                // Truncating first guarantees the (sparse) data area reads as zero
+                ch.truncate(0);
+            }
+
+            header = ch.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+
+            for (int c = 0; c < CHANNELS; c++)
+            {
+                regions[c] = ch.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + c * channelBytes, channelBytes);
+                channels[c] = regions[c].order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+            }
+
+            if (!matches)
+            {
+                header.putInt(0, MAGIC);
+                header.putInt(4, VERSION);
+                header.putInt(8, cols);
+                header.putInt(12, rows);
+                header.putInt(16, resolution);
+            }
+
+            this.reopened = matches;
+        }
+    }
+
+    /**
+     * Whether existing values were found in the file when it was opened.
+     * @return true if the field was reopened rather than created.
+     */
+    public boolean isReopened()
+    {
+        return reopened;
+    }
+
+    /**
+     * Writes all modified pages to the file (checkpoint).
+     */
+    public void flush()
+    {
+        header.force();
+
+        for (MappedByteBuffer region : regions)
+        {
+            region.force();
+        }
+    }
+
+    /**
+     * Sparse evaporation is not available on mapped storage; the full sweep is kept.
+     * @param enabled Ignored.
+     * @param cutoff Ignored.
+     */
+    @Override
+    public void setSparse(boolean enabled, float cutoff)
+    {
+        super.setSparse(false, cutoff);
+    }
+
+    /**
+     * Obtains the pheromone value at a flat cell index.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @return Intensity (0.0 to 1.0).
+     */
+    @Override
+    public float getAt(int i, int channel)
+    {
+        return channels[channel].get(i);
+    }
+
+    /**
+     * Stores a (already clamped) pheromone value at a flat cell index.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param v New intensity.
+     */
+    @Override
+    protected void putAt(int i, int channel, float v)
+    {
+        channels[channel].put(i, v);
+    }
+
+    /**
+     * Stores a value without any bookkeeping.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param v New intensity.
+     */
+    @Override
+    protected void writeRaw(int i, int channel, float v)
+    {
+        channels[channel].put(i, v);
+    }
+
+    /**
+     * Zeroes the four channel regions.
+     */
+    @Override
+    protected void clearChannels()
+    {
+        float[] zeros = new float[Math.min(cols * rows, 1 << 16)];
+        int cells = cols * rows;
+
+        for (int c = 0; c < CHANNELS; c++)
+        {
+            FloatBuffer fb = channels[c];
+
+            for (int i = 0; i < cells; i += zeros.length)
+            {
+                fb.put(i, zeros, 0, Math.min(zeros.length, cells - i));
+            }
+        }
+    }
+
+    /**
+     * Applies the current evaporation factors to a band of rows.
+     * @param y0 First row (inclusive).
+     * @param y1 Last row (exclusive).
+     */
+    @Override
+    protected void evaporateRows(int y0, int y1)
+    {
+        FloatBuffer homeA = channels[0];
+        FloatBuffer foodA = channels[1];
+        FloatBuffer homeB = channels[2];
+        FloatBuffer foodB = channels[3];
+
+        float evapHomeA = evapFactors[0];
+        float evapFoodA = evapFactors[1];
+        float evapHomeB = evapFactors[2];
+        float evapFoodB = evapFactors[3];
+
+        for (int y = y0; y < y1; y++)
+        {
+            int rowOffset = y * cols;
+
+            for (int i = rowOffset + colStart; i < rowOffset + colEnd; i++)
+            {
+                homeA.put(i, homeA.get(i) * evapHomeA);
+                foodA.put(i, foodA.get(i) * evapFoodA);
+
+                homeB.put(i, homeB.get(i) * evapHomeB);
+                foodB.put(i, foodB.get(i) * evapFoodB);
+            }
+        }
+    }
+
+    /**
+     * Copies a range of cells of one channel into a buffer (one bulk copy).
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param dst Buffer receiving {@code dst.remaining()} values in row-major order.
+     */
+    @Override
+    public void exportChannel(int channel, int from, FloatBuffer dst)
+    {
+        dst.put(range(channel, from, dst.remaining()));
+    }
+
+    /**
+     * Replaces a range of cells of one channel with the content of a buffer (one bulk copy).
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param src Buffer holding {@code src.remaining()} values in row-major order.
+     */
+    @Override
+    public void importChannel(int channel, int from, FloatBuffer src)
+    {
+        range(channel, from, src.remaining()).put(src);
+    }
+
+    /**
+     * View of a range of cells of one mapped channel.
+     */
+    private FloatBuffer range(int channel, int from, int count)
+    {
+        FloatBuffer view = channels[channel].duplicate();
+        view.clear().position(from).limit(from + count);
+        return view;
+    }
+
+    /**
+     * Checks that an existing file describes a field of the same dimensions.
+     */
+    private static boolean headerMatches(FileChannel ch, int cols, int rows, int resolution) throws IOException
+    {
+        ByteBuffer b = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+        ch.read(b, 0);
+        b.flip();
+
+        return b.remaining() == 20
+            && b.getInt() == MAGIC
+            && b.getInt() == VERSION
+            && b.getInt() == cols
+            && b.getInt() == rows
+            && b.getInt() == resolution;
+    }
+}
\ No newline at end of file
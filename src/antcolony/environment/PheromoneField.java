@@ -4,10 +4,15 @@ import antcolony.AntColonySimulation;
 import processing.core.PApplet;
 import processing.core.PVector;
 
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Spatial grid that stores pheromone levels.
  * <p>
- * The field is a two-dimensional matrix where each cell contains 4 information channels (float):
+ * The field is a two-dimensional grid where each cell contains 4 information channels (float):
  * 0: Colony A Home
  * 1: Colony A Food
  * 2: Colony B Home
@@ -16,6 +21,13 @@ import processing.core.PVector;
  * <p>
  * This class manages evaporation, simplified diffusion, and trail persistence.
  * </p>
+ * <p>
+ * Each channel is stored as its own contiguous array in row-major order,
+ * so sweeps over the grid touch memory sequentially. Subclasses may keep
+ * the values elsewhere by overriding the storage hooks ({@link #getAt},
+ * {@link #putAt}, {@link #writeRaw}, {@link #clearChannels},
+ * {@link #evaporateRows} and the bulk export/import).
+ * </p>
  */
 public class PheromoneField
 {
@@ -35,9 +47,123 @@ public class PheromoneField
     public final int resolution;
 
     /**
-     * Three-dimensional matrix [column][row][channel].
+     * Number of pheromone channels stored per cell.
+     */
+    public static final int CHANNELS = 4;
+
+    /**
+     * Channel-planar storage: one contiguous array per channel,
+     * each laid out in row-major order (index = y * cols + x).
+     */
+    protected final float[][] grid;
+
+    // --- Evaporation ---
+
+    /**
+     * Per-channel evaporation factors of the current sweep.
+     */
+    protected final float[] evapFactors = new float[CHANNELS];
+
+    /**
+     * Worker pool for the parallel evaporation pass (null = serial sweep).
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * Smallest stripe worth handing to a worker thread.
+     */
+    private static final int MIN_STRIPE_ROWS = 8;
+
+    // --- Playable Area (Precomputed loop bounds, see configure) ---
+
+    /** First grid column inside the playable area (inclusive). */
+    public int colStart = 0;
+
+    /** Last grid column inside the playable area (exclusive). */
+    public int colEnd;
+
+    /** First grid row below the ground surface (inclusive). */
+    public int rowStart = 0;
+
+    // --- Cell Flags (Precomputed once, the queens never move) ---
+
+    /** Mask bit marking a cell inside nest A. */
+    public static final byte NEST_A = 1;
+
+    /** Mask bit marking a cell inside nest B. */
+    public static final byte NEST_B = 2;
+
+    /** Mask bit marking a cell inside the playable area (subject to evaporation). */
+    public static final byte PLAYABLE = 4;
+
+    /** Mask bit marking a cell currently registered in the active-cell set. */
+    public static final byte ACTIVE = 8;
+
+    /** Mask bit marking a cell currently registered in the dirty-cell list. */
+    public static final byte DIRTY = 16;
+
+    /**
+     * Per-cell flags (combination of {@link #NEST_A}, {@link #NEST_B},
+     * {@link #PLAYABLE}, {@link #ACTIVE} and {@link #DIRTY}).
+     */
+    protected final byte[] cellMask;
+
+    // --- Active-Cell Set (Sparse evaporation mode) ---
+
+    /**
+     * When true, only cells holding pheromone are evaporated.
+     */
+    private boolean sparse = false;
+
+    /**
+     * Value below which every channel of an active cell is considered gone.
+     */
+    private float cutoff = 0.001f;
+
+    /**
+     * Compact list of the playable cells that currently hold pheromone.
+     * Only the first {@link #activeCount} entries are valid.
+     */
+    private int[] activeCells = new int[0];
+
+    /**
+     * Number of valid entries in {@link #activeCells}.
+     */
+    private int activeCount = 0;
+
+    // --- Change Tracking (Incremental rendering) ---
+
+    /**
+     * Counter incremented by every change of the field (see {@link #getVersion()}).
+     */
+    private long version = 0;
+
+    /**
+     * When true, cells written by deposits are recorded in {@link #dirtyCells}.
+     */
+    private boolean trackDirty = false;
+
+    /**
+     * Cells written since the last {@link #clearDirty()}.
+     * Only the first {@link #dirtyCount} entries are valid.
      */
-    public final float[][][] grid;
+    private int[] dirtyCells = new int[0];
+
+    /**
+     * Number of valid entries in {@link #dirtyCells}.
+     */
+    private int dirtyCount = 0;
+
+    /**
+     * Set when the whole field changed at once (reset, import, new layout).
+     */
+    private boolean dirtyAll = true;
+
+    /** Flat indices of the cells forming nest A. */
+    protected int[] nestCellsA = new int[0];
+
+    /** Flat indices of the cells forming nest B. */
+    protected int[] nestCellsB = new int[0];
 
     /**
      * Pheromone Field Constructor.
@@ -46,12 +172,104 @@ public class PheromoneField
      * @param resolution Cell size in pixels.
      */
     public PheromoneField(int cols, int rows, int resolution)
+    {
+        this(cols, rows, resolution, true);
+    }
+
+    /**
+     * Constructor for subclasses that store the channels themselves.
+     * @param cols Number of columns.
+     * @param rows Number of rows.
+     * @param resolution Cell size in pixels.
+     * @param heapGrid false to leave {@link #grid} unallocated (null).
+     */
+    protected PheromoneField(int cols, int rows, int resolution, boolean heapGrid)
     {
         this.cols = cols;
         this.rows = rows;
         this.resolution = resolution;
+
         // 4 channels: [0]HomeA, [1]FoodA, [2]HomeB, [3]FoodB
-        this.grid = new float[cols][rows][4];
+        if (heapGrid)
+        {
+            this.grid = new float[CHANNELS][cols * rows];
+        }
+        else
+        {
+            this.grid = null;
+        }
+
+        this.cellMask = new byte[cols * rows];
+        this.colEnd = cols;
+    }
+
+    /**
+     * Precomputes the playable loop bounds and the nest zones.
+     * <p>
+     * Must be called once after the queens are placed (and again if the
+     * layout ever changes). Afterwards the sweeps no longer need per-cell
+     * boundary tests or distance calculations.
+     * </p>
+     * @param minX Left edge of the playable area (pixels).
+     * @param maxX Right edge of the playable area (pixels).
+     * @param surfaceY Ground level (pixels).
+     * @param queenA Queen A location.
+     * @param queenB Queen B location.
+     * @param nestRadius Radius of the permanent nest zone (pixels).
+     */
+    public void configure(float minX, float maxX, float surfaceY, PVector queenA, PVector queenB, float nestRadius)
+    {
+        // Same cells as the old "wx < minX || wx > maxX" and "wy < surfaceY" tests
+        colStart = PApplet.constrain((int) Math.ceil(minX / resolution), 0, cols);
+        colEnd = PApplet.constrain((int) Math.floor(maxX / resolution) + 1, colStart, cols);
+        rowStart = PApplet.constrain((int) Math.ceil(surfaceY / resolution), 0, rows);
+
+        Arrays.fill(cellMask, (byte) 0);
+        activeCount = 0;
+        for (int y = rowStart; y < rows; y++)
+        {
+            Arrays.fill(cellMask, index(colStart, y), index(colEnd, y), PLAYABLE);
+        }
+
+        nestCellsA = buildNest(queenA, nestRadius, NEST_A);
+        nestCellsB = buildNest(queenB, nestRadius, NEST_B);
+
+        dirtyCount = 0;
+        markAllChanged();
+    }
+
+    /**
+     * Marks every playable cell whose corner lies within the radius of a queen.
+     * @return The flat indices of the marked cells.
+     */
+    private int[] buildNest(PVector queen, float radius, byte bit)
+    {
+        int x0 = Math.max(colStart, (int) Math.floor((queen.x - radius) / resolution));
+        int x1 = Math.min(colEnd - 1, (int) Math.ceil((queen.x + radius) / resolution));
+        int y0 = Math.max(rowStart, (int) Math.floor((queen.y - radius) / resolution));
+        int y1 = Math.min(rows - 1, (int) Math.ceil((queen.y + radius) / resolution));
+
+        float rSq = radius * radius;
+        int[] cells = new int[Math.max(0, (x1 - x0 + 1) * (y1 - y0 + 1))];
+        int n = 0;
+
+        for (int y = y0; y <= y1; y++)
+        {
+            for (int x = x0; x <= x1; x++)
+            {
+                float dx = x * resolution - queen.x;
+                float dy = y * resolution - queen.y;
+
+                if (dx * dx + dy * dy < rSq)
+                {
+                    int i = index(x, y);
+                    cellMask[i] |= bit;
+                    cells[n++] = i;
+                }
+            }
+        }
+
+        return Arrays.copyOf(cells, n);
     }
 
     /**
@@ -61,19 +279,18 @@ public class PheromoneField
      */
     public void reset(PVector queenLoc1, PVector queenLoc2)
     {
-        for (int x = 0; x < cols; x++)
+        clearChannels();
+
+        for (int k = 0; k < activeCount; k++)
         {
-            for (int y = 0; y < rows; y++)
-            {
-                grid[x][y][0] = 0;
-                grid[x][y][1] = 0;
-                grid[x][y][2] = 0;
-                grid[x][y][3] = 0;
-            }
+            cellMask[activeCells[k]] &= ~ACTIVE;
         }
+        activeCount = 0;
         
         addNestPheromone(queenLoc1, 0); // Channel 0: Home A
         addNestPheromone(queenLoc2, 2); // Channel 2: Home B
+
+        markAllChanged();
     }
 
     /**
@@ -88,7 +305,18 @@ public class PheromoneField
         
         if (inBounds(qx, qy))
         {
-            grid[qx][qy][channel] = 1.0f;
+            writeRaw(index(qx, qy), channel, 1.0f);
+        }
+    }
+
+    /**
+     * Sets every channel of every cell to zero.
+     */
+    protected void clearChannels()
+    {
+        for (int c = 0; c < CHANNELS; c++)
+        {
+            Arrays.fill(grid[c], 0);
         }
     }
 
@@ -98,10 +326,45 @@ public class PheromoneField
      * Reduces pheromone intensity by multiplying by a factor (0.0 to 1.0).
      * It also keeps the nest zone permanently active.
      * </p>
-     * @param p PApplet reference.
-     * @param sim Simulation reference (for evaporation rates and positions).
+     * @param sim Simulation reference (for evaporation rates).
+     */
+    public void evaporate(AntColonySimulation sim)
+    {
+        updateEvapFactors(sim);
+        version++;
+
+        // Every cell is independent, so stripes can run concurrently
+        // and still produce exactly the same result as the serial sweep
+        if (sparse)
+        {
+            evaporateActive();
+        }
+        else if (pool != null)
+        {
+            pool.invoke(new EvaporationStripe(rowStart, rows));
+        }
+        else
+        {
+            evaporateRows(rowStart, rows);
+        }
+
+        // Keep the nest "fresh" (permanent zone around the queen)
+        for (int i : nestCellsA)
+        {
+            writeRaw(i, 0, 1.0f);
+        }
+
+        for (int i : nestCellsB)
+        {
+            writeRaw(i, 2, 1.0f);
+        }
+    }
+
+    /**
+     * Reads the slider-controlled rates into the per-channel evaporation factors.
+     * @param sim Simulation reference (for evaporation rates).
      */
-    public void evaporate(PApplet p, AntColonySimulation sim)
+    protected void updateEvapFactors(AntColonySimulation sim)
     {
         // Evaporation rate configuration based on sliders
         float evapHomeA = sim.evapRateA;
@@ -120,47 +383,367 @@ public class PheromoneField
             evapFoodB = 0;
         }
 
-        for (int x = 0; x < cols; x++)
+        evapFactors[0] = evapHomeA;
+        evapFactors[1] = evapFoodA;
+        evapFactors[2] = evapHomeB;
+        evapFactors[3] = evapFoodB;
+    }
+
+    /**
+     * Applies the current evaporation factors to a band of rows.
+     * @param y0 First row (inclusive).
+     * @param y1 Last row (exclusive).
+     */
+    protected void evaporateRows(int y0, int y1)
+    {
+        if (PheromoneKernels.SIMD)
         {
-            float wx = x * resolution;
-            
-            // Optimization: Ignores columns outside the playable area (under sidebars)
-            if (wx < sim.leftSidebarW || wx > p.width - sim.rightSidebarW)
+            evaporateRowsSimd(y0, y1);
+            return;
+        }
+
+        float[] homeA = grid[0];
+        float[] foodA = grid[1];
+        float[] homeB = grid[2];
+        float[] foodB = grid[3];
+
+        float evapHomeA = evapFactors[0];
+        float evapFoodA = evapFactors[1];
+        float evapHomeB = evapFactors[2];
+        float evapFoodB = evapFactors[3];
+
+        // Row-major sweep over the precomputed playable area:
+        // the inner loop walks contiguous memory with no per-cell tests
+        for (int y = y0; y < y1; y++)
+        {
+            int rowOffset = y * cols;
+
+            for (int i = rowOffset + colStart; i < rowOffset + colEnd; i++)
             {
+                // Applies multiplicative evaporation
+                homeA[i] *= evapHomeA;
+                foodA[i] *= evapFoodA;
+
+                homeB[i] *= evapHomeB;
+                foodB[i] *= evapFoodB;
+            }
+        }
+    }
+
+    /**
+     * Vectorizable sweep: each channel is scaled in its own unit-stride loop.
+     * <p>
+     * When the playable area spans whole rows the band is contiguous and
+     * each channel becomes a single loop.
+     * </p>
+     * @param y0 First row (inclusive).
+     * @param y1 Last row (exclusive).
+     */
+    private void evaporateRowsSimd(int y0, int y1)
+    {
+        for (int c = 0; c < CHANNELS; c++)
+        {
+            float[] values = grid[c];
+            float factor = evapFactors[c];
+
+            if (colStart == 0 && colEnd == cols)
+            {
+                PheromoneKernels.scale(values, factor, y0 * cols, y1 * cols);
                 continue;
             }
 
-            for (int y = 0; y < rows; y++)
+            for (int y = y0; y < y1; y++)
             {
-                float wy = y * resolution;
-                
-                // Optimization: Ignores the sky (above the surface)
-                if (wy < sim.surfaceY)
-                {
-                    continue;
-                }
+                PheromoneKernels.scale(values, factor, y * cols + colStart, y * cols + colEnd);
+            }
+        }
+    }
 
-                // Applies multiplicative evaporation
-                grid[x][y][0] *= evapHomeA;
-                grid[x][y][1] *= evapFoodA;
-                
-                grid[x][y][2] *= evapHomeB;
-                grid[x][y][3] *= evapFoodB;
-
-                // Keep the nest "fresh" (permanent zone around the queen)
-                if (PApplet.dist(wx, wy, sim.queenLocA.x, sim.queenLocA.y) < 25)
-                {
-                    grid[x][y][0] = 1.0f;
-                }
-                
-                if (PApplet.dist(wx, wy, sim.queenLocB.x, sim.queenLocB.y) < 25)
-                {
-                    grid[x][y][2] = 1.0f;
-                }
+    /**
+     * Evaporates only the cells registered in the active-cell set.
+     * <p>
+     * Cells whose four channels all fall below the cutoff are zeroed and
+     * dropped with a swap-remove, so the cost follows the total trail length
+     * instead of the world area.
+     * </p>
+     */
+    private void evaporateActive()
+    {
+        float[] homeA = grid[0];
+        float[] foodA = grid[1];
+        float[] homeB = grid[2];
+        float[] foodB = grid[3];
+
+        float evapHomeA = evapFactors[0];
+        float evapFoodA = evapFactors[1];
+        float evapHomeB = evapFactors[2];
+        float evapFoodB = evapFactors[3];
+
+        int k = 0;
+        while (k < activeCount)
+        {
+            int i = activeCells[k];
+
+            homeA[i] *= evapHomeA;
+            foodA[i] *= evapFoodA;
+            homeB[i] *= evapHomeB;
+            foodB[i] *= evapFoodB;
+
+            if (homeA[i] < cutoff && foodA[i] < cutoff && homeB[i] < cutoff && foodB[i] < cutoff)
+            {
+                homeA[i] = 0;
+                foodA[i] = 0;
+                homeB[i] = 0;
+                foodB[i] = 0;
+
+                // Swap-remove: the last entry takes this slot and is visited next
+                cellMask[i] &= ~ACTIVE;
+                activeCells[k] = activeCells[--activeCount];
+            }
+            else
+            {
+                k++;
+            }
+        }
+    }
+
+    /**
+     * Switches between the full-grid sweep and the sparse active-cell sweep.
+     * <p>
+     * Should be called before {@link #reset}, which clears the grid, so that
+     * every later deposit is tracked.
+     * </p>
+     * @param enabled true to evaporate only the cells holding pheromone.
+     * @param cutoff Value below which a cell is zeroed and dropped (e.g. 0.001).
+     */
+    public void setSparse(boolean enabled, float cutoff)
+    {
+        this.sparse = enabled;
+        this.cutoff = cutoff;
+
+        // The set can hold every cell; only allocated when actually used
+        if (enabled && activeCells.length == 0)
+        {
+            activeCells = new int[cols * rows];
+        }
+    }
+
+    /**
+     * Number of cells currently in the active-cell set.
+     * <p>
+     * Always 0 when the sparse mode is disabled.
+     * </p>
+     * @return Active (non-zero) cell count.
+     */
+    public int getActiveCount()
+    {
+        return activeCount;
+    }
+
+    /**
+     * Starts or stops recording the cells written by deposits.
+     * @param enabled true to fill the dirty-cell list (see {@link #getDirtyCells()}).
+     */
+    public void setDirtyTracking(boolean enabled)
+    {
+        this.trackDirty = enabled;
+
+        // Each cell is listed at most once, so the list never outgrows the grid
+        if (enabled && dirtyCells.length == 0)
+        {
+            dirtyCells = new int[cols * rows];
+        }
+
+        clearDirty();
+    }
+
+    /**
+     * Change counter: any evaporation, deposit, reset or import increments it.
+     * @return Current version of the field.
+     */
+    public long getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Whether the whole field changed at once since the last {@link #clearDirty()}.
+     * @return true if every cell must be considered dirty.
+     */
+    public boolean isAllDirty()
+    {
+        return dirtyAll;
+    }
+
+    /**
+     * Cells written since the last {@link #clearDirty()} (valid up to {@link #getDirtyCount()}).
+     * @return The dirty-cell list (shared, not a copy).
+     */
+    public int[] getDirtyCells()
+    {
+        return dirtyCells;
+    }
+
+    /**
+     * Number of valid entries in the dirty-cell list.
+     * @return Dirty cell count.
+     */
+    public int getDirtyCount()
+    {
+        return dirtyCount;
+    }
+
+    /**
+     * Empties the dirty-cell list once its content has been consumed.
+     */
+    public void clearDirty()
+    {
+        for (int k = 0; k < dirtyCount; k++)
+        {
+            cellMask[dirtyCells[k]] &= ~DIRTY;
+        }
+
+        dirtyCount = 0;
+        dirtyAll = false;
+    }
+
+    /**
+     * Copies the current values of a range of cells of one channel into a
+     * buffer (one bulk copy).
+     * <p>
+     * Large grids are exported in several ranges, so the copy never needs a
+     * buffer as big as the channel.
+     * </p>
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param dst Buffer receiving {@code dst.remaining()} values in row-major order.
+     */
+    public void exportChannel(int channel, int from, FloatBuffer dst)
+    {
+        dst.put(grid[channel], from, dst.remaining());
+    }
+
+    /**
+     * Replaces the values of a range of cells of one channel with the
+     * content of a buffer (one bulk copy).
+     * <p>
+     * {@link #finishImport()} must be called once all channels are imported.
+     * </p>
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param src Buffer holding {@code src.remaining()} values in row-major order.
+     */
+    public void importChannel(int channel, int from, FloatBuffer src)
+    {
+        src.get(grid[channel], from, src.remaining());
+    }
+
+    /**
+     * Rebuilds the derived state (active-cell set) after an import.
+     */
+    public void finishImport()
+    {
+        markAllChanged();
+
+        for (int k = 0; k < activeCount; k++)
+        {
+            cellMask[activeCells[k]] &= ~ACTIVE;
+        }
+        activeCount = 0;
+
+        if (!sparse)
+        {
+            return;
+        }
+
+        for (int i = 0; i < cols * rows; i++)
+        {
+            if ((cellMask[i] & PLAYABLE) != 0
+                && (getAt(i, 0) > 0 || getAt(i, 1) > 0 || getAt(i, 2) > 0 || getAt(i, 3) > 0))
+            {
+                cellMask[i] |= ACTIVE;
+                activeCells[activeCount++] = i;
             }
         }
     }
 
+    /**
+     * Enables or disables the parallel (striped) evaporation pass.
+     * @param threads Number of worker threads; 1 or less keeps the serial sweep.
+     */
+    public void setParallelism(int threads)
+    {
+        if (pool != null)
+        {
+            pool.shutdown();
+            pool = null;
+        }
+
+        if (threads > 1)
+        {
+            pool = new ForkJoinPool(threads);
+        }
+    }
+
+    /**
+     * Number of threads used by the evaporation pass.
+     * @return 1 when running serially.
+     */
+    public int getParallelism()
+    {
+        if (pool == null)
+        {
+            return 1;
+        }
+
+        return pool.getParallelism();
+    }
+
+    /**
+     * Fork-join task that evaporates a horizontal stripe of the grid.
+     * <p>
+     * Stripes are split in half until they are no larger than
+     * {@link #stripeRows()}, so each worker gets a contiguous band of rows.
+     * </p>
+     */
+    private class EvaporationStripe extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final int y0;
+        private final int y1;
+
+        EvaporationStripe(int y0, int y1)
+        {
+            this.y0 = y0;
+            this.y1 = y1;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (y1 - y0 <= stripeRows())
+            {
+                evaporateRows(y0, y1);
+                return;
+            }
+
+            int mid = (y0 + y1) >>> 1;
+            invokeAll(new EvaporationStripe(y0, mid), new EvaporationStripe(mid, y1));
+        }
+    }
+
+    /**
+     * Height of a single stripe: the playable rows split evenly across the workers.
+     */
+    private int stripeRows()
+    {
+        int playable = rows - rowStart;
+        int threads = getParallelism();
+
+        return Math.max(MIN_STRIPE_ROWS, (playable + threads - 1) / threads);
+    }
+
     /**
      * Obtains the pheromone value at a world position.
      * @param wx World X coordinate.
@@ -178,7 +761,7 @@ public class PheromoneField
             return 0;
         }
         
-        return grid[x][y][channel];
+        return getAt(index(x, y), channel);
     }
 
     /**
@@ -194,7 +777,9 @@ public class PheromoneField
             return;
         }
         
-        grid[x][y][channel] = clamp01(v);
+        int i = index(x, y);
+        putAt(i, channel, clamp01(v));
+        markDirty(i);
     }
 
     /**
@@ -211,7 +796,167 @@ public class PheromoneField
             return;
         }
         
-        grid[x][y][channel] = clamp01(grid[x][y][channel] + delta);
+        addAt(index(x, y), channel, delta);
+    }
+
+    /**
+     * Adds pheromone to a cell (cumulative, clamped to 1.0).
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param delta Amount to add.
+     */
+    public void addAt(int i, int channel, float delta)
+    {
+        putAt(i, channel, clamp01(getAt(i, channel) + delta));
+        markDirty(i);
+    }
+
+    /**
+     * Raises a cell to a value if it is currently weaker ("max" write).
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param v Candidate intensity.
+     */
+    public void maxAt(int i, int channel, float v)
+    {
+        if (v > getAt(i, channel))
+        {
+            putAt(i, channel, clamp01(v));
+            markDirty(i);
+        }
+    }
+
+    /**
+     * Converts a world position into a flat cell index.
+     * @param wx World X coordinate.
+     * @param wy World Y coordinate.
+     * @return The cell index, or -1 if the position is outside the grid.
+     */
+    public int cellIndex(float wx, float wy)
+    {
+        int x = (int) (wx / resolution);
+        int y = (int) (wy / resolution);
+
+        if (!inBounds(x, y))
+        {
+            return -1;
+        }
+
+        return index(x, y);
+    }
+
+    /**
+     * Obtains the pheromone value of a grid cell.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @param channel Channel ID (0-3).
+     * @return Intensity (0.0 to 1.0).
+     */
+    public float get(int x, int y, int channel)
+    {
+        return getAt(index(x, y), channel);
+    }
+
+    /**
+     * Obtains the pheromone value at a flat cell index (see {@link #index}).
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @return Intensity (0.0 to 1.0).
+     */
+    public float getAt(int i, int channel)
+    {
+        return grid[channel][i];
+    }
+
+    /**
+     * Stores a (already clamped) pheromone value at a flat cell index.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param v New intensity.
+     */
+    protected void putAt(int i, int channel, float v)
+    {
+        writeRaw(i, channel, v);
+
+        // Register the cell so the sparse sweep starts evaporating it
+        if (sparse && v > 0 && (cellMask[i] & (PLAYABLE | ACTIVE)) == PLAYABLE)
+        {
+            cellMask[i] |= ACTIVE;
+            activeCells[activeCount++] = i;
+        }
+    }
+
+    /**
+     * Stores a value without any bookkeeping (nest refresh and initial marks).
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param v New intensity.
+     */
+    protected void writeRaw(int i, int channel, float v)
+    {
+        grid[channel][i] = v;
+    }
+
+    /**
+     * Records a written cell for the incremental renderers.
+     */
+    private void markDirty(int i)
+    {
+        version++;
+
+        if (trackDirty && (cellMask[i] & DIRTY) == 0)
+        {
+            cellMask[i] |= DIRTY;
+            dirtyCells[dirtyCount++] = i;
+        }
+    }
+
+    /**
+     * Signals a change of the whole field (every cell is dirty).
+     */
+    protected void markAllChanged()
+    {
+        version++;
+        dirtyAll = true;
+    }
+
+    /**
+     * Signals a change that does not write cells (e.g. a lazy decay step).
+     */
+    protected void markChanged()
+    {
+        version++;
+    }
+
+    /**
+     * Checks whether a cell lies inside the playable area.
+     * @param i Flat cell index.
+     * @return true if the cell is subject to evaporation and drawn.
+     */
+    public boolean isPlayable(int i)
+    {
+        return (cellMask[i] & PLAYABLE) != 0;
+    }
+
+    /**
+     * Checks whether a cell belongs to either nest zone.
+     * @param i Flat cell index.
+     * @return true if the cell is inside a nest.
+     */
+    public boolean isNest(int i)
+    {
+        return (cellMask[i] & (NEST_A | NEST_B)) != 0;
+    }
+
+    /**
+     * Converts grid coordinates into a flat (row-major) cell index.
+     * @param x Grid column.
+     * @param y Grid row.
+     * @return Index into each channel array.
+     */
+    public int index(int x, int y)
+    {
+        return y * cols + x;
     }
 
     /**
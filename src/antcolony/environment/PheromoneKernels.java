@@ -0,0 +1,93 @@
+package antcolony.environment;
+
+import antcolony.data.AntColonyConfig;
+
+/**
+ * Inner loops of the pheromone sweeps.
+ * <p>
+ * Two implementations are available and one of them is selected once, when
+ * the class is loaded ({@link #SIMD}):
+ * </p>
+ * <ul>
+ *     <li>SIMD: one channel per loop, unit stride, no branches and hoisted
+ *     bounds. This is the shape the JIT's superword pass turns into packed
+ *     vector instructions (SSE/AVX), so no incubator module is needed.</li>
+ *     <li>Scalar: the original per-cell code (four channels fused in one
+ *     loop, one cell at a time). Kept as the reference implementation.</li>
+ * </ul>
+ * <p>
+ * Both paths produce exactly the same values. The default comes from
+ * {@link AntColonyConfig#SIMD_KERNELS} and can be overridden at launch
+ * with {@code -Dantcolony.kernels=simd} or {@code -Dantcolony.kernels=scalar}.
+ * </p>
+ */
+public final class PheromoneKernels
+{
+    /**
+     * System property overriding the kernel selection.
+     */
+    public static final String PROPERTY = "antcolony.kernels";
+
+    /**
+     * True when the vectorizable kernels are used, false for the scalar reference.
+     */
+    public static final boolean SIMD = select();
+
+    /**
+     * Static utility class.
+     */
+    private PheromoneKernels()
+    {
+    }
+
+    /**
+     * Multiplies a contiguous range of values by a factor (one evaporation channel).
+     * @param values Channel values.
+     * @param factor Evaporation factor.
+     * @param from First index (inclusive).
+     * @param to Last index (exclusive).
+     */
+    public static void scale(float[] values, float factor, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            values[i] *= factor;
+        }
+    }
+
+    /**
+     * Packs clamped components into an opaque colour.
+     * <p>
+     * Truncates exactly like {@code PApplet.color(r, g, b)} in the default
+     * RGB 255 colour mode, without going through the renderer's colour
+     * calculator (used by the pheromone overlay on every visible cell).
+     * </p>
+     * @param r Red (0 to 255).
+     * @param g Green (0 to 255).
+     * @param b Blue (0 to 255).
+     * @return Packed colour ({@code 0xFFRRGGBB}).
+     */
+    public static int pack(float r, float g, float b)
+    {
+        return 0xFF000000 | ((int) r << 16) | ((int) g << 8) | (int) b;
+    }
+
+    /**
+     * Reads the configured selection, then the launch override.
+     */
+    private static boolean select()
+    {
+        String kernels = System.getProperty(PROPERTY);
+
+        if ("scalar".equalsIgnoreCase(kernels))
+        {
+            return false;
+        }
+        else if ("simd".equalsIgnoreCase(kernels))
+        {
+            return true;
+        }
+
+        return AntColonyConfig.SIMD_KERNELS;
+    }
+}
\ No newline at end of file
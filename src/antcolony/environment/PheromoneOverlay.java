@@ -0,0 +1,385 @@
+package antcolony.environment;
+
+import processing.core.PApplet;
+import processing.core.PConstants;
+import processing.core.PImage;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.util.Arrays;
+
+/**
+ * Pheromone layer kept as a grid-resolution image.
+ * <p>
+ * The image has one pixel per grid cell (cols x rows) and is drawn scaled
+ * up to the screen with nearest-neighbour sampling, in a single
+ * {@code image()} call. It is never rebuilt from scratch while the field
+ * evolves normally. Each refresh only visits:
+ * </p>
+ * <ul>
+ *     <li>the cells currently shown (they fade with evaporation, and
+ *     disappear once every channel falls below the visibility threshold);</li>
+ *     <li>the cells written by deposits since the previous refresh
+ *     (the field's dirty-cell list).</li>
+ * </ul>
+ * <p>
+ * When the field did not change at all (paused simulation) nothing is
+ * recomputed. A reset, a snapshot import or a new field triggers one full
+ * rebuild.
+ * </p>
+ * <p>
+ * {@link #update} needs no graphics context, so it may run on the
+ * simulation thread; {@link #copyTo} then hands a frozen copy to the
+ * render thread (see {@code RenderSnapshot}).
+ * </p>
+ */
+public class PheromoneOverlay
+{
+    /**
+     * Lowest intensity drawn (same threshold as the former per-pixel overlay).
+     */
+    private static final float VISIBLE = 0.01f;
+
+    /**
+     * Grid-resolution image (transparent where nothing is drawn).
+     */
+    private PImage image;
+
+    /**
+     * Field the image currently mirrors.
+     */
+    private PheromoneField field;
+
+    /**
+     * Version of the field at the last refresh.
+     */
+    private long version;
+
+    /**
+     * Cells currently drawn (non-transparent pixels).
+     * Only the first {@link #shownCount} entries are valid.
+     */
+    private int[] shownCells = new int[0];
+
+    /**
+     * Number of valid entries in {@link #shownCells}.
+     */
+    private int shownCount = 0;
+
+    // --- Bounding Box of the Shown Cells (Grid coordinates, inclusive) ---
+
+    /** Leftmost shown column. */
+    private int minX;
+
+    /** Rightmost shown column. */
+    private int maxX;
+
+    /** Topmost shown row. */
+    private int minY;
+
+    /** Bottommost shown row. */
+    private int maxY;
+
+    // --- Statistics ---
+
+    /**
+     * Number of cells recomputed by the last refresh.
+     */
+    public int lastVisited = 0;
+
+    /**
+     * Number of full rebuilds since creation.
+     */
+    public int fullRebuilds = 0;
+
+    /**
+     * Brings the image up to date with the field.
+     * @param f Pheromone field to mirror.
+     */
+    public void update(PheromoneField f)
+    {
+        boolean full = false;
+
+        if (f != field || image == null)
+        {
+            attach(f);
+            full = true;
+        }
+
+        if (!full && field.getVersion() == version)
+        {
+            lastVisited = 0;
+            return;
+        }
+
+        resetBounds();
+
+        if (full || field.isAllDirty())
+        {
+            rebuild();
+        }
+        else
+        {
+            refreshShown();
+            addDirty();
+        }
+
+        field.clearDirty();
+        version = field.getVersion();
+
+        image.updatePixels();
+    }
+
+    /**
+     * Draws the overlay (scaled to the grid area).
+     * @param p PApplet reference.
+     */
+    public void draw(PApplet p)
+    {
+        if (image == null || shownCount == 0)
+        {
+            return;
+        }
+
+        // Only the bounding box of the shown cells is composited
+        int res = field.resolution;
+        float x = minX * res;
+        float y = minY * res;
+        float w = (maxX - minX + 1) * res;
+        float h = (maxY - minY + 1) * res;
+
+        // Nearest-neighbour scaling keeps the cells as sharp blocks
+        Object nativeGraphics = p.g.getNative();
+
+        if (nativeGraphics instanceof Graphics2D)
+        {
+            Graphics2D g2 = (Graphics2D) nativeGraphics;
+            Object previous = g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+
+            g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            p.image(image, x, y, w, h, minX, minY, maxX + 1, maxY + 1);
+
+            if (previous != null)
+            {
+                g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, previous);
+            }
+        }
+        else
+        {
+            p.image(image, x, y, w, h, minX, minY, maxX + 1, maxY + 1);
+        }
+    }
+
+    /**
+     * Copies the current image into another overlay, which can then be drawn
+     * while this one keeps being updated (the copy is never updated itself).
+     * @param dst Overlay receiving the frozen copy.
+     */
+    public void copyTo(PheromoneOverlay dst)
+    {
+        if (image == null)
+        {
+            return;
+        }
+
+        if (dst.image == null || dst.image.pixels.length != image.pixels.length)
+        {
+            dst.image = new PImage(image.width, image.height, PConstants.ARGB);
+        }
+
+        System.arraycopy(image.pixels, 0, dst.image.pixels, 0, image.pixels.length);
+        dst.image.updatePixels();
+
+        dst.field = field;
+        dst.shownCount = shownCount;
+        dst.minX = minX;
+        dst.maxX = maxX;
+        dst.minY = minY;
+        dst.maxY = maxY;
+    }
+
+    /**
+     * Number of cells currently drawn.
+     * @return Shown cell count.
+     */
+    public int getShownCount()
+    {
+        return shownCount;
+    }
+
+    /**
+     * Starts mirroring a new field (new image, dirty tracking enabled).
+     * The caller rebuilds the image right after.
+     */
+    private void attach(PheromoneField f)
+    {
+        if (field != null && field != f)
+        {
+            field.setDirtyTracking(false);
+        }
+
+        field = f;
+        field.setDirtyTracking(true);
+
+        image = new PImage(f.cols, f.rows, PConstants.ARGB);
+        shownCells = new int[f.cols * f.rows];
+        shownCount = 0;
+    }
+
+    /**
+     * Recomputes every playable cell.
+     */
+    private void rebuild()
+    {
+        int[] pixels = image.pixels;
+
+        Arrays.fill(pixels, 0);
+        shownCount = 0;
+
+        for (int y = field.rowStart; y < field.rows; y++)
+        {
+            for (int x = field.colStart; x < field.colEnd; x++)
+            {
+                int cell = field.index(x, y);
+                int c = shade(cell);
+
+                if (c != 0)
+                {
+                    pixels[cell] = c;
+                    shownCells[shownCount++] = cell;
+                    include(x, y);
+                }
+            }
+        }
+
+        lastVisited = (field.rows - field.rowStart) * (field.colEnd - field.colStart);
+        fullRebuilds++;
+    }
+
+    /**
+     * Recomputes the shown cells, dropping those that faded out.
+     */
+    private void refreshShown()
+    {
+        int[] pixels = image.pixels;
+        lastVisited = shownCount;
+
+        int k = 0;
+        while (k < shownCount)
+        {
+            int cell = shownCells[k];
+            int c = shade(cell);
+
+            pixels[cell] = c;
+
+            if (c == 0)
+            {
+                // Swap-remove: the last entry takes this slot and is visited next
+                shownCells[k] = shownCells[--shownCount];
+            }
+            else
+            {
+                include(cell % field.cols, cell / field.cols);
+                k++;
+            }
+        }
+    }
+
+    /**
+     * Adds the freshly written cells that are not shown yet.
+     */
+    private void addDirty()
+    {
+        int[] pixels = image.pixels;
+        int[] dirty = field.getDirtyCells();
+        int n = field.getDirtyCount();
+
+        for (int k = 0; k < n; k++)
+        {
+            int cell = dirty[k];
+
+            // Shown cells were already recomputed by refreshShown
+            if (pixels[cell] != 0 || !field.isPlayable(cell))
+            {
+                continue;
+            }
+
+            int c = shade(cell);
+
+            if (c != 0)
+            {
+                pixels[cell] = c;
+                shownCells[shownCount++] = cell;
+                include(cell % field.cols, cell / field.cols);
+            }
+        }
+
+        lastVisited += n;
+    }
+
+    /**
+     * Empties the bounding box before it is grown again by {@link #include}.
+     */
+    private void resetBounds()
+    {
+        minX = field.cols;
+        minY = field.rows;
+        maxX = -1;
+        maxY = -1;
+    }
+
+    /**
+     * Grows the bounding box to contain a shown cell.
+     */
+    private void include(int x, int y)
+    {
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+    }
+
+    /**
+     * Blends the four channels of a cell into its overlay colour.
+     * @return The opaque colour, or 0 (transparent) if nothing is drawn.
+     */
+    private int shade(int cell)
+    {
+        // Nest zones draw nothing here (remain transparent)
+        if (field.isNest(cell))
+        {
+            return 0;
+        }
+
+        // Gets intensity of the 4 pheromones
+        float hA = field.getAt(cell, 0); // Home A
+        float fA = field.getAt(cell, 1); // Food A
+        float hB = field.getAt(cell, 2); // Home B
+        float fB = field.getAt(cell, 3); // Food B
+
+        if (hA <= VISIBLE && fA <= VISIBLE && hB <= VISIBLE && fB <= VISIBLE)
+        {
+            return 0;
+        }
+
+        float r = 0, g = 0, b = 0;
+
+        // Blends Colony A colors (Bluish)
+        if (hA > 0 || fA > 0)
+        {
+            b += 255 * hA + 255 * fA;
+            g += 200 * fA;
+            r += 20 * (hA + fA);
+        }
+
+        // Blends Colony B colors (Reddish)
+        if (hB > 0 || fB > 0)
+        {
+            r += 255 * hB + 255 * fB;
+            g += 140 * fB;
+            b += 20 * (hB + fB);
+        }
+
+        return PheromoneKernels.pack(Math.min(r, 255), Math.min(g, 255), Math.min(b, 255));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,348 @@
+package antcolony.environment;
+
+import antcolony.AntColonySimulation;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Pheromone field with quantized (fixed-point) storage.
+ * <p>
+ * Intensities live in [0, 1], so a float spends most of its bits on range
+ * that is never used. This backend stores each value as an unsigned integer
+ * (16 bits, or 8 bits), which divides the memory traffic of the sweeps by
+ * two or four. Evaporation becomes an integer multiply-shift with the factor
+ * in 0.32 fixed point (computed in a {@code long}):
+ * </p>
+ * <pre>
+ *     q' = (q * F + r) &gt;&gt;&gt; 32        F = round(factor * 2^32)
+ * </pre>
+ * <p>
+ * Plain rounding is biased either way: truncation makes every trail decay
+ * faster than the float field, and with 8 bits a step of 1/255 is larger
+ * than the decay of a slow rate such as 0.999, so rounding to nearest would
+ * freeze the trail. {@code r} is therefore a uniform random number in
+ * [0, 2^32) (stochastic rounding), with 16 bits as well as with 8: each
+ * cell decays by the correct amount on average. The 32 fraction bits of
+ * {@code F} keep the factor itself exact to float precision (a 0.16 factor
+ * is off by up to 1e-5, which compounds tick after tick). The random
+ * sequence only depends on the world clock, the channel and the row, so
+ * results stay deterministic with striped parallel sweeps and a restored
+ * snapshot resumes the same sequence.
+ * </p>
+ * <p>
+ * The sparse evaporation mode is not supported by this backend.
+ * </p>
+ */
+public class QuantizedPheromoneField extends PheromoneField
+{
+    /** Fixed-point scale of the evaporation factors (0.32). */
+    private static final double FACTOR_ONE = 0x1p32;
+
+    /**
+     * Bits per stored value (16 or 8).
+     */
+    public final int bits;
+
+    /**
+     * Largest stored value (represents an intensity of 1.0).
+     */
+    private final int maxQ;
+
+    /**
+     * 16-bit channels (null in 8-bit mode).
+     */
+    private final char[][] q16;
+
+    /**
+     * 8-bit channels, read as unsigned (null in 16-bit mode).
+     */
+    private final byte[][] q8;
+
+    /**
+     * Evaporation factors in 0.32 fixed point.
+     */
+    private final long[] fixedFactors = new long[CHANNELS];
+
+    /**
+     * World clock of the current evaporation pass (seeds the stochastic rounding).
+     */
+    private long tick = 0;
+
+    /**
+     * Quantized Pheromone Field Constructor.
+     * @param cols Number of columns.
+     * @param rows Number of rows.
+     * @param resolution Cell size in pixels.
+     * @param bits Bits per value: 16 (fixed point) or 8 (stochastic rounding).
+     */
+    public QuantizedPheromoneField(int cols, int rows, int resolution, int bits)
+    {
+        super(cols, rows, resolution, false);
+
+        if (bits != 16 && bits != 8)
+        {
+            throw new IllegalArgumentException("Quantized pheromones support 16 or 8 bits, not " + bits);
+        }
+
+        this.bits = bits;
+        this.maxQ = (1 << bits) - 1;
+
+        if (bits == 16)
+        {
+            this.q16 = new char[CHANNELS][cols * rows];
+            this.q8 = null;
+        }
+        else
+        {
+            this.q16 = null;
+            this.q8 = new byte[CHANNELS][cols * rows];
+        }
+    }
+
+    /**
+     * Sparse evaporation is not available on quantized storage; the full sweep is kept.
+     * @param enabled Ignored.
+     * @param cutoff Ignored.
+     */
+    @Override
+    public void setSparse(boolean enabled, float cutoff)
+    {
+        super.setSparse(false, cutoff);
+    }
+
+    /**
+     * Applies evaporation to all grid cells (integer multiply-shift).
+     * @param sim Simulation reference (for evaporation rates and the world clock).
+     */
+    @Override
+    public void evaporate(AntColonySimulation sim)
+    {
+        // The clock is part of every snapshot, unlike a private pass counter
+        tick = (long) sim.time.worldTime;
+        super.evaporate(sim);
+    }
+
+    /**
+     * Reads the slider rates and converts them to 0.32 fixed point.
+     * @param sim Simulation reference (for evaporation rates).
+     */
+    @Override
+    protected void updateEvapFactors(AntColonySimulation sim)
+    {
+        super.updateEvapFactors(sim);
+
+        for (int c = 0; c < CHANNELS; c++)
+        {
+            fixedFactors[c] = Math.round(evapFactors[c] * FACTOR_ONE);
+        }
+    }
+
+    /**
+     * Applies the fixed-point evaporation factors to a band of rows.
+     * @param y0 First row (inclusive).
+     * @param y1 Last row (exclusive).
+     */
+    @Override
+    protected void evaporateRows(int y0, int y1)
+    {
+        if (q16 != null)
+        {
+            for (int c = 0; c < CHANNELS; c++)
+            {
+                evaporateRows16(q16[c], fixedFactors[c], c, y0, y1);
+            }
+        }
+        else
+        {
+            for (int c = 0; c < CHANNELS; c++)
+            {
+                evaporateRows8(q8[c], fixedFactors[c], c, y0, y1);
+            }
+        }
+    }
+
+    /**
+     * 16-bit sweep with stochastic rounding (xorshift stream seeded per tick, channel and row).
+     */
+    private void evaporateRows16(char[] q, long f, int channel, int y0, int y1)
+    {
+        for (int y = y0; y < y1; y++)
+        {
+            int rowOffset = y * cols;
+            int r = rowSeed(channel, y);
+
+            for (int i = rowOffset + colStart; i < rowOffset + colEnd; i++)
+            {
+                int v = q[i];
+                if (v == 0)
+                {
+                    continue;
+                }
+
+                r ^= r << 13;
+                r ^= r >>> 17;
+                r ^= r << 5;
+
+                q[i] = (char) ((v * f + (r & 0xFFFFFFFFL)) >>> 32);
+            }
+        }
+    }
+
+    /**
+     * 8-bit sweep with stochastic rounding (xorshift stream seeded per tick, channel and row).
+     */
+    private void evaporateRows8(byte[] q, long f, int channel, int y0, int y1)
+    {
+        for (int y = y0; y < y1; y++)
+        {
+            int rowOffset = y * cols;
+            int r = rowSeed(channel, y);
+
+            for (int i = rowOffset + colStart; i < rowOffset + colEnd; i++)
+            {
+                int v = q[i] & 0xFF;
+                if (v == 0)
+                {
+                    continue;
+                }
+
+                r ^= r << 13;
+                r ^= r >>> 17;
+                r ^= r << 5;
+
+                q[i] = (byte) ((v * f + (r & 0xFFFFFFFFL)) >>> 32);
+            }
+        }
+    }
+
+    /**
+     * Non-zero xorshift seed for one row of one channel on the current tick.
+     */
+    private int rowSeed(int channel, int y)
+    {
+        long z = (tick * 0x9E3779B97F4A7C15L) ^ ((long) y << 2 | channel);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+
+        int r = (int) (z ^ (z >>> 31));
+        if (r == 0)
+        {
+            return 1;
+        }
+
+        return r;
+    }
+
+    /**
+     * Obtains the pheromone value at a flat cell index.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @return Intensity (0.0 to 1.0).
+     */
+    @Override
+    public float getAt(int i, int channel)
+    {
+        if (q16 != null)
+        {
+            return q16[channel][i] / (float) maxQ;
+        }
+
+        return (q8[channel][i] & 0xFF) / (float) maxQ;
+    }
+
+    /**
+     * Stores a (already clamped) value, rounded to the nearest step.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param v New intensity.
+     */
+    @Override
+    protected void putAt(int i, int channel, float v)
+    {
+        writeRaw(i, channel, v);
+    }
+
+    /**
+     * Stores a value, rounded to the nearest step.
+     * @param i Flat cell index.
+     * @param channel Channel ID (0-3).
+     * @param v New intensity (0.0 to 1.0).
+     */
+    @Override
+    protected void writeRaw(int i, int channel, float v)
+    {
+        int q = Math.round(v * maxQ);
+
+        if (q16 != null)
+        {
+            q16[channel][i] = (char) q;
+        }
+        else
+        {
+            q8[channel][i] = (byte) q;
+        }
+    }
+
+    /**
+     * Sets every channel of every cell to zero.
+     */
+    @Override
+    protected void clearChannels()
+    {
+        for (int c = 0; c < CHANNELS; c++)
+        {
+            if (q16 != null)
+            {
+                Arrays.fill(q16[c], (char) 0);
+            }
+            else
+            {
+                Arrays.fill(q8[c], (byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Copies a range of cells of one channel into a buffer (converted to floats).
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param dst Buffer receiving {@code dst.remaining()} values in row-major order.
+     */
+    @Override
+    public void exportChannel(int channel, int from, FloatBuffer dst)
+    {
+        int end = from + dst.remaining();
+
+        for (int i = from; i < end; i++)
+        {
+            dst.put(getAt(i, channel));
+        }
+    }
+
+    /**
+     * Replaces a range of cells of one channel with the content of a buffer (quantized).
+     * @param channel Channel ID (0-3).
+     * @param from Flat index of the first cell.
+     * @param src Buffer holding {@code src.remaining()} values in row-major order.
+     */
+    @Override
+    public void importChannel(int channel, int from, FloatBuffer src)
+    {
+        int end = from + src.remaining();
+
+        for (int i = from; i < end; i++)
+        {
+            writeRaw(i, channel, src.get());
+        }
+    }
+
+    /**
+     * Heap memory used by the stored values.
+     * @return Size in bytes of the four channels.
+     */
+    public long storageBytes()
+    {
+        return (long) CHANNELS * cols * rows * (bits / 8);
+    }
+}
\ No newline at end of file
@@ -1,5 +1,6 @@
 package antcolony.environment;
 
+import antcolony.data.SimRandom;
 import processing.core.PApplet;
 
 /**
@@ -38,22 +39,22 @@ public class Stars
 
     /**
      * Star Constructor.
-     * @param p PApplet reference.
+     * @param rng Random stream.
      * @param xMin Left generation boundary.
      * @param xMax Right generation boundary.
      * @param yMin Top generation boundary.
      * @param yMax Bottom generation boundary.
      */
-    public Stars(PApplet p, float xMin, float xMax, float yMin, float yMax)
+    public Stars(SimRandom rng, float xMin, float xMax, float yMin, float yMax)
     {
-        this.x = p.random(xMin, xMax);
-        this.y = p.random(yMin, yMax);
+        this.x = rng.random(xMin, xMax);
+        this.y = rng.random(yMin, yMax);
         
-        this.baseSize = p.random(1.0f, 2.5f);
-        this.twinkleSpeed = p.random(0.02f, 0.08f);
+        this.baseSize = rng.random(1.0f, 2.5f);
+        this.twinkleSpeed = rng.random(0.02f, 0.08f);
         
         // Defines a random starting point in the sine cycle (0 to 2PI)
-        this.phase = p.random(PApplet.TWO_PI);
+        this.phase = rng.random(PApplet.TWO_PI);
     }
 
     /**
@@ -1,6 +1,7 @@
 package antcolony.ui;
 
 import antcolony.AntColonySimulation;
+import antcolony.data.SimulationParams;
 import processing.core.PApplet;
 
 /**
@@ -57,6 +58,9 @@ public class SidebarLeft
         int groupGap = 80;  // Extra space between groups (Global, Blue, Red)
         int w = 230;
 
+        // Initial values
+        SimulationParams d = new SimulationParams();
+
         // Base position (first global slider)
         yGlobal = 146;
         
@@ -64,18 +68,36 @@ public class SidebarLeft
         yGroupB = (yGroupA + gap * 2) + groupGap;
         
         // --- Global Group ---
-        speedSlider = new SimpleSlider(x, yGlobal, w, 14, 1, 10, 1, "Time Acceleration");
-        leafSlider  = new SimpleSlider(x, yGlobal + gap, w, 14, 0.001f, 0.05f, 0.042f, "Global Leaf Fall Rate");
+        speedSlider = new SimpleSlider(x, yGlobal, w, 14, 1, 10, d.speed, "Time Acceleration");
+        leafSlider  = new SimpleSlider(x, yGlobal + gap, w, 14, 0.001f, 0.05f, d.leafRate, "Global Leaf Fall Rate");
         
         // --- Blue Colony Group (Native) ---
-        metaASlider = new SimpleSlider(x, yGroupA, w, 14, 0.1f, 2.0f, 0.167f, "BLUE Metabolism");
-        costASlider = new SimpleSlider(x, yGroupA + gap, w, 14, 1, 20, 4, "BLUE Spawn Cost");
-        evapASlider = new SimpleSlider(x, yGroupA + gap * 2, w, 14, 0.900f, 0.999f, 0.995f, "BLUE Memory");
+        metaASlider = new SimpleSlider(x, yGroupA, w, 14, 0.1f, 2.0f, d.metaA, "BLUE Metabolism");
+        costASlider = new SimpleSlider(x, yGroupA + gap, w, 14, 1, 20, d.costA, "BLUE Spawn Cost");
+        evapASlider = new SimpleSlider(x, yGroupA + gap * 2, w, 14, 0.900f, 0.999f, d.evapRateA, "BLUE Memory");
         
         // --- Red Colony Group (Invasive) ---
-        metaBSlider = new SimpleSlider(x, yGroupB, w, 14, 0.1f, 2.0f, 0.334f, "RED Metabolism");
-        costBSlider = new SimpleSlider(x, yGroupB + gap, w, 14, 1, 20, 3, "RED Spawn Cost");
-        evapBSlider = new SimpleSlider(x, yGroupB + gap * 2, w, 14, 0.900f, 0.999f, 0.995f, "RED Memory");
+        metaBSlider = new SimpleSlider(x, yGroupB, w, 14, 0.1f, 2.0f, d.metaB, "RED Metabolism");
+        costBSlider = new SimpleSlider(x, yGroupB + gap, w, 14, 1, 20, d.costB, "RED Spawn Cost");
+        evapBSlider = new SimpleSlider(x, yGroupB + gap * 2, w, 14, 0.900f, 0.999f, d.evapRateB, "RED Memory");
+    }
+
+    /**
+     * Copies the current slider values into a parameter set.
+     * @param dst Parameters to fill.
+     */
+    public void readParams(SimulationParams dst)
+    {
+        dst.speed = (int) speedSlider.value;
+        dst.leafRate = leafSlider.value;
+
+        dst.metaA = metaASlider.value;
+        dst.costA = (int) costASlider.value;
+        dst.evapRateA = evapASlider.value;
+
+        dst.metaB = metaBSlider.value;
+        dst.costB = (int) costBSlider.value;
+        dst.evapRateB = evapBSlider.value;
     }
 
     /**
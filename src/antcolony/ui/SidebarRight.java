@@ -1,6 +1,7 @@
 package antcolony.ui;
 
 import antcolony.AntColonySimulation;
+import antcolony.entities.PopulationRegistry;
 import processing.core.PApplet;
 
 /**
@@ -63,8 +64,9 @@ public class SidebarRight
         
         y += 35;
         
-        // Population calculation using Streams (Java 8+)
-        long popA = sim.ants.stream().filter(a -> a.colonyId == 0).count();
+        // Population (O(1) read from the registry)
+        PopulationRegistry population = sim.displayedAnts().population;
+        int popA = population.getLive(0);
         
         drawStat(p, "Population", String.valueOf(popA), col1, y);
         y += gap;
@@ -86,7 +88,7 @@ public class SidebarRight
         
         y += 35;
         
-        long popB = sim.ants.stream().filter(a -> a.colonyId == 1).count();
+        int popB = population.getLive(1);
         
         drawStat(p, "Population", String.valueOf(popB), col2, y);
         y += gap;
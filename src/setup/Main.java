@@ -1,8 +1,17 @@
 package setup;
 
 import antcolony.AntColonyApp;
+import antcolony.AntColonySimulation;
+import antcolony.SimulationEngine;
+import antcolony.data.AntColonyConfig;
+import antcolony.data.SimulationParams;
+import antcolony.entities.HeadingTable;
+import antcolony.environment.MappedPheromoneField;
 import processing.core.PApplet;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 /**
  * Main Entry Point of the Application.
  * <p>
@@ -10,20 +19,211 @@ import processing.core.PApplet;
  * responsibility is to instantiate the specific application implementation 
  * and launch the Processing engine.
  * </p>
+ * <p>
+ * With {@code --headless [--ticks N]} no window is opened: the simulation
+ * runs N ticks through {@link SimulationEngine} and prints the final
+ * colony statistics. {@code --seed S} fixes the random seed, so two runs
+ * with the same seed are identical. {@code --load FILE} resumes a headless
+ * run from a snapshot and {@code --save FILE} writes one at the end.
+ * {@code --width W --height H} change the headless world size and
+ * {@code --pheromone-file FILE} keeps the pheromone grid in a memory-mapped
+ * file (for worlds too large for the heap). {@code --pheromone-bits 16|8}
+ * selects the quantized pheromone storage and {@code --threads N} runs the
+ * ant update and the evaporation on N threads. In the windowed application,
+ * {@code --sim-thread} runs the physics on a dedicated thread.
+ * {@code --heading-report N} prints the accuracy of an N-step heading
+ * table against exact trigonometry and exits.
+ * </p>
  */
 public class Main 
 {
+    /**
+     * Number of ticks of a headless run when {@code --ticks} is omitted.
+     */
+    private static final long DEFAULT_HEADLESS_TICKS = 10000;
+
+    /**
+     * Command line usage summary.
+     */
+    private static final String USAGE = "Usage: Main [--seed S] [--sim-thread] [--headless [--ticks N] [--threads N] [--width W] [--height H]"
+                                       + " [--pheromone-file FILE] [--pheromone-bits B] [--load FILE] [--save FILE]]"
+                                       + " | Main --heading-report N";
+
+    /**
+     * Options parsed from the command line.
+     */
+    private static class Options
+    {
+        boolean headless = false;
+        boolean simThread = AntColonyConfig.SIMULATION_THREAD;
+        long ticks = DEFAULT_HEADLESS_TICKS;
+        long seed = System.nanoTime();
+        int width = AntColonyConfig.WIDTH;
+        int height = AntColonyConfig.HEIGHT;
+        String pheromoneFile = null;
+        int pheromoneBits = AntColonyConfig.PHEROMONE_BITS;
+        int threads = 0;
+        String loadFile = null;
+        String saveFile = null;
+        int headingReport = -1;
+    }
+
     /**
      * Java Main method.
      * @param args Command line arguments.
      */
     public static void main(String[] args) 
     {
+        Options o = new Options();
+
+        for (int i = 0; i < args.length; i++)
+        {
+            boolean hasValue = i + 1 < args.length;
+
+            if (args[i].equals("--headless"))
+            {
+                o.headless = true;
+            }
+            else if (args[i].equals("--sim-thread"))
+            {
+                o.simThread = true;
+            }
+            else if (args[i].equals("--ticks") && hasValue)
+            {
+                o.ticks = Long.parseLong(args[++i]);
+            }
+            else if (args[i].equals("--seed") && hasValue)
+            {
+                o.seed = Long.parseLong(args[++i]);
+            }
+            else if (args[i].equals("--threads") && hasValue)
+            {
+                o.threads = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--width") && hasValue)
+            {
+                o.width = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--height") && hasValue)
+            {
+                o.height = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--pheromone-file") && hasValue)
+            {
+                o.pheromoneFile = args[++i];
+            }
+            else if (args[i].equals("--pheromone-bits") && hasValue)
+            {
+                o.pheromoneBits = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equals("--load") && hasValue)
+            {
+                o.loadFile = args[++i];
+            }
+            else if (args[i].equals("--save") && hasValue)
+            {
+                o.saveFile = args[++i];
+            }
+            else if (args[i].equals("--heading-report") && hasValue)
+            {
+                o.headingReport = Integer.parseInt(args[++i]);
+            }
+            else
+            {
+                System.err.println("Unknown argument: " + args[i]);
+                System.err.println(USAGE);
+                return;
+            }
+        }
+
+        if (o.pheromoneBits != 32 && o.pheromoneBits != 16 && o.pheromoneBits != 8)
+        {
+            System.err.println("Invalid --pheromone-bits " + o.pheromoneBits + " (expected 32, 16 or 8)");
+            System.err.println(USAGE);
+            return;
+        }
+
+        if (o.headingReport >= 0 && !HeadingTable.isValidSteps(o.headingReport))
+        {
+            System.err.println("Invalid --heading-report " + o.headingReport + " (expected 0 or a power of two)");
+            System.err.println(USAGE);
+            return;
+        }
+
+        if (o.headingReport >= 0)
+        {
+            System.out.print(HeadingTable.accuracyReport(o.headingReport));
+            return;
+        }
+
+        if (o.headless)
+        {
+            runHeadless(o);
+            return;
+        }
+
         // 1. Assign the specific app implementation to the engine
         // This allows for easy switching between different simulations.
-        ProcessingSetup.app = new AntColonyApp();
+        ProcessingSetup.app = new AntColonyApp(o.seed, o.simThread);
         
         // 2. Start the Processing PApplet launcher
         PApplet.main("setup.ProcessingSetup");
     }
+
+    /**
+     * Runs the simulation without a window and prints the final statistics.
+     * @param o Parsed command line options.
+     */
+    private static void runHeadless(Options o)
+    {
+        AntColonySimulation sim = new AntColonySimulation();
+        sim.seed = o.seed;
+        sim.pheromoneBits = o.pheromoneBits;
+        if (o.threads > 0)
+        {
+            sim.antThreads = o.threads;
+            sim.evaporationThreads = o.threads;
+        }
+        if (o.pheromoneFile != null)
+        {
+            sim.pheromoneFile = Path.of(o.pheromoneFile);
+        }
+
+        SimulationEngine engine = new SimulationEngine(sim, o.width, o.height, new SimulationParams());
+
+        try
+        {
+            if (o.loadFile != null)
+            {
+                long t0 = System.nanoTime();
+                engine.load(Path.of(o.loadFile));
+                System.out.printf("Loaded %s in %.1f ms%n", o.loadFile, (System.nanoTime() - t0) / 1e6);
+            }
+
+            long start = System.nanoTime();
+            engine.run(o.ticks);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.print(engine.report());
+            System.out.printf("Seed: %d | State hash: %016x%n", engine.sim.seed, engine.stateHash());
+            System.out.printf("Elapsed: %.2f s (%.0f ticks/s)%n", seconds, o.ticks / Math.max(seconds, 1e-9));
+
+            if (o.saveFile != null)
+            {
+                long t0 = System.nanoTime();
+                engine.save(Path.of(o.saveFile));
+                System.out.printf("Saved %s in %.1f ms%n", o.saveFile, (System.nanoTime() - t0) / 1e6);
+            }
+
+            // Leaves the mapped grid consistent on disk
+            if (engine.sim.pheromones instanceof MappedPheromoneField)
+            {
+                ((MappedPheromoneField) engine.sim.pheromones).flush();
+            }
+        }
+        catch (IOException e)
+        {
+            System.err.println("Snapshot error: " + e.getMessage());
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,210 @@
+package setup;
+
+import antcolony.AntColonySimulation;
+import antcolony.SimulationEngine;
+import antcolony.data.AntColonyConfig;
+import antcolony.data.SimRandom;
+import antcolony.data.SimulationParams;
+import antcolony.entities.Ant;
+import antcolony.entities.AntPool;
+import antcolony.entities.PopulationRegistry;
+
+/**
+ * Regression check of the simulation physics.
+ * <p>
+ * Runs the reference world (seed {@link #SEED}, default size and
+ * parameters) for {@link #TICKS} headless ticks and compares its
+ * {@link SimulationEngine#stateHash()} against the recorded value, once
+ * with the serial update and once each with 2 and 4 threads. The parallel
+ * ant update senses the pheromones as they were at the start of the tick,
+ * so it has its own reference hash, shared by every thread count.
+ * </p>
+ * <p>
+ * A stress check then kills about half of {@link #STRESS_ANTS} ants in a
+ * single {@link AntPool#removeMarked} sweep and verifies the survivors, the
+ * population registry and the per-colony death counts.
+ * </p>
+ * <p>
+ * Prints one line per check and exits with status 1 if any of them fails.
+ * A deliberate change of the physics must update the recorded hashes.
+ * </p>
+ */
+public class RegressionCheck
+{
+    /**
+     * Seed of the reference world.
+     */
+    private static final long SEED = 42;
+
+    /**
+     * Ticks run before hashing.
+     */
+    private static final long TICKS = 10000;
+
+    /**
+     * Expected hash of the serial update.
+     */
+    private static final long SERIAL_HASH = 0x6aaf4db9e34fdc00L;
+
+    /**
+     * Expected hash of the parallel update (any thread count above 1).
+     */
+    private static final long PARALLEL_HASH = 0xf3b2ae9f040d1084L;
+
+    /**
+     * Population of the mass-removal stress check.
+     */
+    private static final int STRESS_ANTS = 10000;
+
+    /**
+     * Number of failed checks.
+     */
+    private static int failures = 0;
+
+    /**
+     * Java Main method.
+     * @param args Ignored.
+     */
+    public static void main(String[] args)
+    {
+        checkHash(1, SERIAL_HASH);
+        checkHash(2, PARALLEL_HASH);
+        checkHash(4, PARALLEL_HASH);
+        checkMassRemoval();
+
+        if (failures > 0)
+        {
+            System.out.println(failures + " check(s) FAILED");
+            System.exit(1);
+        }
+
+        System.out.println("All checks passed");
+        System.exit(0);
+    }
+
+    /**
+     * Runs the reference world on a number of threads and compares its hash.
+     */
+    private static void checkHash(int threads, long expected)
+    {
+        AntColonySimulation sim = new AntColonySimulation();
+        sim.seed = SEED;
+        sim.pheromoneBits = 32;
+        sim.antThreads = threads;
+        sim.evaporationThreads = threads;
+
+        SimulationEngine engine = new SimulationEngine(sim, AntColonyConfig.WIDTH, AntColonyConfig.HEIGHT,
+                                                       new SimulationParams());
+        engine.run(TICKS);
+
+        long hash = engine.stateHash();
+        report(hash == expected, String.format("state hash, seed %d, %d ticks, %d thread(s): %016x (expected %016x)",
+                SEED, TICKS, threads, hash, expected));
+    }
+
+    /**
+     * Kills about half of a large population in one sweep and checks the bookkeeping.
+     * <p>
+     * Every ant is tagged with its creation index (in {@code age}), so the
+     * survivors can be compared one by one with the ants left unmarked.
+     * </p>
+     */
+    private static void checkMassRemoval()
+    {
+        AntColonySimulation sim = new AntColonySimulation();
+        sim.seed = SEED;
+        new SimulationEngine(sim, AntColonyConfig.WIDTH, AntColonyConfig.HEIGHT, new SimulationParams());
+
+        SimRandom rng = new SimRandom(SEED);
+        Ant.AntState[] states = Ant.AntState.values();
+        AntPool pool = new AntPool();
+        Ant a = new Ant();
+
+        boolean[] dead = new boolean[STRESS_ANTS];
+        int[] expectedDeaths = new int[PopulationRegistry.COLONIES];
+        int marked = 0;
+
+        for (int k = 0; k < STRESS_ANTS; k++)
+        {
+            int colony = k % PopulationRegistry.COLONIES;
+            a.init(sim, rng.random(sim.worldW), rng.random(sim.worldH), colony);
+            a.hasFood = rng.nextFloat() < 0.5f;
+            a.state = states[(int) rng.random(states.length)];
+            a.age = k;
+
+            pool.add(a);
+
+            if (rng.nextFloat() < 0.5f)
+            {
+                dead[k] = true;
+                expectedDeaths[colony]++;
+                marked++;
+            }
+        }
+
+        int[] deaths = new int[PopulationRegistry.COLONIES];
+        int removed = pool.removeMarked(dead, STRESS_ANTS, deaths);
+
+        report(removed == marked && pool.size() == STRESS_ANTS - marked,
+                String.format("mass removal of %d/%d ants: %d removed, %d left", marked, STRESS_ANTS, removed, pool.size()));
+
+        // Each survivor appears exactly once and was not marked
+        boolean[] seen = new boolean[STRESS_ANTS];
+        boolean survivorsOk = true;
+
+        for (int i = 0; i < pool.size(); i++)
+        {
+            int tag = (int) pool.age[i];
+
+            if (dead[tag] || seen[tag])
+            {
+                survivorsOk = false;
+            }
+
+            seen[tag] = true;
+        }
+
+        report(survivorsOk, "mass removal: every survivor is an unmarked ant, once");
+
+        PopulationRegistry recount = new PopulationRegistry();
+        recount.recount(pool);
+        boolean registryOk = true;
+
+        for (int c = 0; c < PopulationRegistry.COLONIES; c++)
+        {
+            registryOk &= pool.population.getLive(c) == recount.getLive(c);
+            registryOk &= pool.population.getCarrying(c) == recount.getCarrying(c);
+
+            for (Ant.AntState s : states)
+            {
+                registryOk &= pool.population.getInState(c, s) == recount.getInState(c, s);
+            }
+        }
+
+        report(registryOk, String.format("mass removal: registry matches a recount (%d + %d live)",
+                pool.population.getLive(0), pool.population.getLive(1)));
+
+        boolean deathsOk = true;
+
+        for (int c = 0; c < PopulationRegistry.COLONIES; c++)
+        {
+            deathsOk &= deaths[c] == expectedDeaths[c];
+        }
+
+        report(deathsOk, String.format("mass removal: deaths per colony %d + %d (expected %d + %d)",
+                deaths[0], deaths[1], expectedDeaths[0], expectedDeaths[1]));
+    }
+
+    /**
+     * Prints the outcome of one check and counts failures.
+     */
+    private static void report(boolean ok, String what)
+    {
+        System.out.println((ok ? "PASS " : "FAIL ") + what);
+
+        if (!ok)
+        {
+            failures++;
+        }
+    }
+}
\ No newline at end of file